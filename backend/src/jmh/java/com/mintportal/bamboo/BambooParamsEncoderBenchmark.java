@@ -0,0 +1,86 @@
+package com.mintportal.bamboo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.MultiValueMap;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 트리거 1건당 파라미터 변환 비용 비교
+ * - legacy: 기존 QueueItemProcessor.toStringParams 방식 (Map / List 값마다 새 ObjectMapper)
+ * - encoder: BambooParamsEncoder (공유 ObjectWriter) + form body 구성
+ *
+ * 실행: mvn -Pjmh test-compile exec:exec -Djmh.args="-prof gc"
+ * 할당량은 gc.alloc.rate.norm (B/op) 으로 비교
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BambooParamsEncoderBenchmark {
+
+    private BambooParamsEncoder encoder;
+    private Map<String, Object> params;
+
+    @Setup
+    public void setup() {
+        encoder = new BambooParamsEncoder(new ObjectMapper());
+
+        // BambooParamsGenerator 가 만드는 파라미터와 비슷한 구성
+        params = new LinkedHashMap<>();
+        params.put("PROJECTNAME", "MINT");
+        params.put("LAYERNAME", "release-fw");
+        params.put("BUILDTYPECD", "RELEASE");
+        params.put("TARGET", "PM9E1");
+        params.put("BUILDOSENV", "WINDOWS");
+        params.put("COMPILER", "ARM");
+        params.put("COMPILERDICT", Map.of("ARM", "6.22", "GCC", "8.3", "IAR", "9.40"));
+        params.put("BUILDBATNAME", "build_release.bat");
+        params.put("BUILDBATOPTION", "-j16 " + "-DFEATURE_FLAG=1 ".repeat(40));
+        params.put("FASTBUILDYN", "N");
+        params.put("SAMYN", "Y");
+        params.put("COVERITYYN", "Y");
+        params.put("NOTIFYLIST", List.of("fw-release@example.com", "qa@example.com"));
+        params.put("BUILDNUMBER", 1234);
+    }
+
+    @Benchmark
+    public Map<String, String> legacy() {
+        Map<String, String> stringParams = new HashMap<>();
+        params.forEach((key, value) -> {
+            if (value != null) {
+                if (value instanceof Map || value instanceof List) {
+                    try {
+                        stringParams.put(key, new ObjectMapper().writeValueAsString(value));
+                    } catch (Exception e) {
+                        stringParams.put(key, value.toString());
+                    }
+                } else {
+                    stringParams.put(key, value.toString());
+                }
+            }
+        });
+        return stringParams;
+    }
+
+    @Benchmark
+    public MultiValueMap<String, String> encoder() {
+        return encoder.toFormData(encoder.toStringParams(params));
+    }
+}
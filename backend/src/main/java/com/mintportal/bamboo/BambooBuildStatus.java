@@ -52,6 +52,14 @@ public class BambooBuildStatus {
     @JsonProperty("quarantinedTestCount")
     private Integer quarantinedTestCount;
 
+    // Only populated when requested with expand=artifacts
+    @JsonProperty("artifacts")
+    private Artifacts artifacts;
+
+    // Only populated when requested with expand=variables
+    @JsonProperty("variables")
+    private Variables variables;
+
     @Data
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class StagesWrapper {
@@ -78,7 +86,62 @@ public class BambooBuildStatus {
         private String lifeCycleState;
     }
 
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Artifacts {
+        @JsonProperty("artifact")
+        private List<Artifact> artifact;
+
+        @JsonProperty("size")
+        private Integer size;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Artifact {
+        private String name;
+        private Link link;
+        private String producerJobKey;
+        private Boolean shared;
+        private Long size;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Link {
+        private String href;
+        private String rel;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Variables {
+        @JsonProperty("variable")
+        private List<Variable> variable;
+
+        @JsonProperty("size")
+        private Integer size;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Variable {
+        private String name;
+        private String value;
+    }
+
     // Helper methods
+    public String getVariable(String name) {
+        if (variables == null || variables.getVariable() == null) {
+            return null;
+        }
+        return variables.getVariable().stream()
+                .filter(variable -> name.equals(variable.getName()))
+                .map(Variable::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
     public boolean isFinished() {
         return "Finished".equalsIgnoreCase(lifeCycleState);
     }
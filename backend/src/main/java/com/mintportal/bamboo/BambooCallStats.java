@@ -0,0 +1,67 @@
+package com.mintportal.bamboo;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bamboo API 호출 지표
+ * - 트리거 호출 지연시간의 지수 이동 평균 (EWMA, 상태 표시용)
+ * - 조정 주기별 트리거 지연시간 표본 수 / 평균 (drainTriggerWindow 호출 시 초기화)
+ * - 트리거 성공/실패 횟수
+ */
+@Component
+public class BambooCallStats {
+
+    private static final double ALPHA = 0.3;
+
+    private volatile double triggerLatencyEwmaMillis = -1;
+    private final AtomicLong triggerSuccessCount = new AtomicLong();
+    private final AtomicLong triggerErrorCount = new AtomicLong();
+
+    private long windowSamples;
+    private long windowLatencySumMillis;
+
+    /**
+     * 한 조정 주기 동안의 트리거 지연시간
+     * @param samples 표본 수 (0 이면 이 주기에 트리거 호출 없음)
+     * @param meanMillis 평균 지연시간 (ms), 표본이 없으면 0
+     */
+    public record LatencyWindow(long samples, double meanMillis) {
+    }
+
+    public synchronized void recordTrigger(long latencyMillis, boolean success) {
+        triggerLatencyEwmaMillis = triggerLatencyEwmaMillis < 0
+                ? latencyMillis
+                : ALPHA * latencyMillis + (1 - ALPHA) * triggerLatencyEwmaMillis;
+        windowSamples++;
+        windowLatencySumMillis += latencyMillis;
+        (success ? triggerSuccessCount : triggerErrorCount).incrementAndGet();
+    }
+
+    /**
+     * 현재 주기의 지연시간 표본을 반환하고 새 주기 시작
+     */
+    public synchronized LatencyWindow drainTriggerWindow() {
+        LatencyWindow window = new LatencyWindow(windowSamples,
+                windowSamples > 0 ? (double) windowLatencySumMillis / windowSamples : 0);
+        windowSamples = 0;
+        windowLatencySumMillis = 0;
+        return window;
+    }
+
+    /**
+     * @return 트리거 지연시간 EWMA (ms), 측정값이 없으면 -1
+     */
+    public double getTriggerLatencyEwmaMillis() {
+        return triggerLatencyEwmaMillis;
+    }
+
+    public long getTriggerSuccessCount() {
+        return triggerSuccessCount.get();
+    }
+
+    public long getTriggerErrorCount() {
+        return triggerErrorCount.get();
+    }
+}
@@ -2,13 +2,22 @@ package com.mintportal.bamboo;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Base64;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -16,28 +25,20 @@ import java.util.Map;
 @Slf4j
 public class BambooClient {
 
-    private final BambooConfig config;
-    private WebClient webClient;
+    private final BambooTransport transport;
+    private final BambooRateLimiter rateLimiter;
+    private final BambooCallStats callStats;
+    private final BambooParamsEncoder paramsEncoder;
 
     private WebClient getWebClient() {
-        if (webClient == null) {
-            WebClient.Builder builder = WebClient.builder()
-                    .baseUrl(config.getBaseUrl())
-                    .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
-
-            // Add authentication
-            if (config.getApiToken() != null && !config.getApiToken().isEmpty()) {
-                builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + config.getApiToken());
-            } else if (config.getUsername() != null && config.getPassword() != null) {
-                String auth = config.getUsername() + ":" + config.getPassword();
-                String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
-                builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Basic " + encodedAuth);
-            }
-
-            webClient = builder.build();
-        }
-        return webClient;
+        return transport.webClient();
+    }
+
+    /**
+     * Wait for a rate limit token, then run the call under the operation's bulkhead and circuit breaker
+     */
+    private <T> Mono<T> call(BambooOperation operation, BambooPriority priority, Mono<T> request) {
+        return rateLimiter.acquire(operation, priority).then(transport.guard(operation, request));
     }
 
     /**
@@ -47,24 +48,67 @@ public class BambooClient {
      * @return Build result key (e.g., "PROJ-PLAN-123")
      */
     public Mono<BambooBuildResult> triggerBuild(String planKey, Map<String, String> variables) {
+        return triggerBuild(planKey, variables, BambooPriority.NORMAL);
+    }
+
+    /**
+     * Trigger a build plan in Bamboo
+     * @param planKey The Bamboo plan key (e.g., "PROJ-PLAN")
+     * @param variables Optional build variables
+     * @param priority HIGH for release layer builds
+     * @return Build result key (e.g., "PROJ-PLAN-123")
+     */
+    public Mono<BambooBuildResult> triggerBuild(String planKey, Map<String, String> variables, BambooPriority priority) {
+        return triggerBuild(planKey, variables, rateLimiter.acquire(BambooOperation.TRIGGER, priority), null);
+    }
+
+    /**
+     * Trigger a build plan in Bamboo with separate bounds on the rate limit wait and the request
+     * @param timeout Longest wait for a rate limit token (then fails with
+     *                {@link BambooRateLimiter.WaitTimeoutException}, nothing was sent), and once the token is
+     *                granted, longest wait for Bamboo's response (then fails with a TimeoutException)
+     * @return Build result key (e.g., "PROJ-PLAN-123")
+     */
+    public Mono<BambooBuildResult> triggerBuild(String planKey, Map<String, String> variables,
+                                                BambooPriority priority, Duration timeout) {
+        return triggerBuild(planKey, variables, rateLimiter.acquire(BambooOperation.TRIGGER, priority, timeout), timeout);
+    }
+
+    private Mono<BambooBuildResult> triggerBuild(String planKey, Map<String, String> variables,
+                                                 Mono<Void> token, Duration timeout) {
         log.info("Triggering Bamboo build for plan: {}", planKey);
 
-        StringBuilder url = new StringBuilder("/rest/api/latest/queue/")
-                .append(planKey);
+        // Variables go in a form-encoded body: JSON values and long options do not fit in a URL
+        MultiValueMap<String, String> form = paramsEncoder.toFormData(variables);
 
-        if (variables != null && !variables.isEmpty()) {
-            url.append("?");
-            variables.forEach((key, value) ->
-                    url.append("bamboo.variable.").append(key).append("=").append(value).append("&"));
-        }
+        // Latency and the timeout are measured from when the token is granted,
+        // so throttling neither looks like a slow Bamboo nor counts against the request
+        return token.then(Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            Mono<BambooBuildResult> request = transport.guard(BambooOperation.TRIGGER, getWebClient()
+                    .post()
+                    .uri("/rest/api/latest/queue/{planKey}", planKey)
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .body(BodyInserters.fromFormData(form))
+                    .httpRequest(transport.responseTimeout(BambooOperation.TRIGGER))
+                    .retrieve()
+                    .bodyToMono(BambooBuildResult.class))
+                    .doOnSuccess(result -> {
+                        callStats.recordTrigger(elapsedMillis(startedAt), true);
+                        log.info("Build triggered successfully: {}", result.getBuildResultKey());
+                    })
+                    .doOnError(error -> {
+                        callStats.recordTrigger(elapsedMillis(startedAt), false);
+                        log.error("Failed to trigger build: {}", error.getMessage());
+                    })
+                    // A call cancelled by the caller's timeout still counts as a slow call
+                    .doOnCancel(() -> callStats.recordTrigger(elapsedMillis(startedAt), false));
+            return timeout != null ? request.timeout(timeout) : request;
+        }));
+    }
 
-        return getWebClient()
-                .post()
-                .uri(url.toString())
-                .retrieve()
-                .bodyToMono(BambooBuildResult.class)
-                .doOnSuccess(result -> log.info("Build triggered successfully: {}", result.getBuildResultKey()))
-                .doOnError(error -> log.error("Failed to trigger build: {}", error.getMessage()));
+    private static long elapsedMillis(long startedAtNanos) {
+        return (System.nanoTime() - startedAtNanos) / 1_000_000;
     }
 
     /**
@@ -73,16 +117,131 @@ public class BambooClient {
      * @return Build status information
      */
     public Mono<BambooBuildStatus> getBuildStatus(String buildResultKey) {
+        return getBuildStatus(buildResultKey, BambooPriority.NORMAL);
+    }
+
+    /**
+     * Get build status from Bamboo
+     * @param buildResultKey The build result key (e.g., "PROJ-PLAN-123")
+     * @param priority HIGH for release layer builds
+     * @return Build status information
+     */
+    public Mono<BambooBuildStatus> getBuildStatus(String buildResultKey, BambooPriority priority) {
         log.debug("Fetching build status for: {}", buildResultKey);
 
-        return getWebClient()
+        return call(BambooOperation.STATUS, priority, getWebClient()
                 .get()
                 .uri("/rest/api/latest/result/{buildResultKey}", buildResultKey)
+                .httpRequest(transport.responseTimeout(BambooOperation.STATUS))
                 .retrieve()
-                .bodyToMono(BambooBuildStatus.class)
+                .bodyToMono(BambooBuildStatus.class))
                 .doOnError(error -> log.error("Failed to get build status: {}", error.getMessage()));
     }
 
+    /**
+     * Get the most recent results of a plan in one request, including queued and in-progress builds
+     * @param planKey The plan key (e.g., "PROJ-PLAN")
+     * @param maxResults Number of most recent results to return
+     * @param priority HIGH when the plan has release layer builds
+     * @return Results with stages expanded, newest first
+     */
+    public Mono<BambooResultList> getPlanResults(String planKey, int maxResults, BambooPriority priority) {
+        log.debug("Fetching {} recent results for plan: {}", maxResults, planKey);
+
+        return call(BambooOperation.STATUS, priority, getWebClient()
+                .get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/rest/api/latest/result/{planKey}")
+                        .queryParam("expand", "results.result.stages.stage")
+                        .queryParam("includeAllStates", true)
+                        .queryParam("max-results", maxResults)
+                        .build(planKey))
+                .httpRequest(transport.responseTimeout(BambooOperation.STATUS))
+                .retrieve()
+                .bodyToMono(BambooResultList.class))
+                .doOnError(error -> log.error("Failed to get results for plan {}: {}", planKey, error.getMessage()));
+    }
+
+    /**
+     * Find a recent result of a plan that was queued with the given build variable.
+     * Bamboo does not deduplicate triggers, so this is how a trigger whose response was lost is recognised.
+     * @param planKey The Bamboo plan key (e.g., "PROJ-PLAN")
+     * @param name Variable name as sent with the trigger
+     * @param value Expected variable value
+     * @param maxResults How many of the most recent results to inspect
+     * @return The matching result, empty if none of the recent results carries the variable
+     */
+    public Mono<BambooBuildResult> findResultByVariable(String planKey, String name, String value,
+                                                         int maxResults, BambooPriority priority) {
+        return call(BambooOperation.STATUS, priority, getWebClient()
+                .get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/rest/api/latest/result/{planKey}")
+                        .queryParam("expand", "results.result.variables")
+                        .queryParam("includeAllStates", true)
+                        .queryParam("max-results", maxResults)
+                        .build(planKey))
+                .httpRequest(transport.responseTimeout(BambooOperation.STATUS))
+                .retrieve()
+                .bodyToMono(BambooResultList.class))
+                .flatMapIterable(BambooResultList::getResultList)
+                .filter(status -> value.equals(status.getVariable(name)))
+                .next()
+                .map(status -> {
+                    BambooBuildResult result = new BambooBuildResult();
+                    result.setBuildResultKey(status.getKey());
+                    result.setPlanKey(planKey);
+                    result.setBuildNumber(status.getBuildNumber());
+                    return result;
+                })
+                .doOnError(error -> log.error("Failed to look up results of plan {}: {}", planKey, error.getMessage()));
+    }
+
+    /**
+     * Plan key of a build result key ("PROJ-PLAN-123" -> "PROJ-PLAN")
+     */
+    public static String planKeyOf(String buildResultKey) {
+        int index = buildResultKey.lastIndexOf('-');
+        return index > 0 ? buildResultKey.substring(0, index) : buildResultKey;
+    }
+
+    /**
+     * Get the artifacts published by a build result
+     * @param buildResultKey The build result key (e.g., "PROJ-PLAN-123")
+     * @return Artifacts, empty if none were published (yet)
+     */
+    public Mono<List<BambooBuildStatus.Artifact>> getBuildArtifacts(String buildResultKey) {
+        return call(BambooOperation.STATUS, BambooPriority.LOW, getWebClient()
+                .get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/rest/api/latest/result/{buildResultKey}")
+                        .queryParam("expand", "artifacts")
+                        .build(buildResultKey))
+                .httpRequest(transport.responseTimeout(BambooOperation.STATUS))
+                .retrieve()
+                .bodyToMono(BambooBuildStatus.class))
+                .map(status -> status.getArtifacts() != null && status.getArtifacts().getArtifact() != null
+                        ? status.getArtifacts().getArtifact()
+                        : List.<BambooBuildStatus.Artifact>of());
+    }
+
+    /**
+     * Download an artifact file to disk as it streams in, without holding it in memory
+     * @param href Artifact file URL
+     * @param target File to write
+     */
+    public Mono<Void> downloadArtifact(String href, Path target) {
+        Flux<DataBuffer> body = rateLimiter.acquire(BambooOperation.LOGS, BambooPriority.LOW)
+                .thenMany(transport.guard(BambooOperation.LOGS, getWebClient()
+                .get()
+                .uri(href)
+                .accept(MediaType.ALL)
+                .httpRequest(transport.responseTimeout(BambooOperation.LOGS))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)));
+        return DataBufferUtils.write(body, target);
+    }
+
     /**
      * Get build logs from Bamboo
      * @param buildResultKey The build result key
@@ -90,37 +249,137 @@ public class BambooClient {
      * @return Build logs
      */
     public Mono<String> getBuildLogs(String buildResultKey, String jobKey) {
-        return getWebClient()
+        return call(BambooOperation.LOGS, BambooPriority.LOW, getWebClient()
                 .get()
                 .uri("/download/{buildResultKey}/build_logs/{jobKey}.log",
                         buildResultKey, jobKey)
+                .httpRequest(transport.responseTimeout(BambooOperation.LOGS))
                 .retrieve()
-                .bodyToMono(String.class);
+                .bodyToMono(String.class));
+    }
+
+    /**
+     * Read part of a build log with an HTTP Range request, without buffering the whole log
+     * @param logPath Log URL or path (e.g., BuildStageResult.logUrl)
+     * @param offset First byte to read; a negative value reads the last -offset bytes
+     * @param maxBytes Maximum number of bytes to read
+     * @return The chunk read; empty when there are no bytes past {@code offset}.
+     *         Fails with {@link RangeNotSupportedException} if Bamboo ignores the range and the log exceeds one chunk
+     */
+    public Mono<BambooLogChunk> getLogChunk(String logPath, long offset, int maxBytes) {
+        String range = offset < 0
+                ? "bytes=" + offset
+                : "bytes=" + offset + "-" + (offset + maxBytes - 1);
+
+        return call(BambooOperation.LOGS, BambooPriority.LOW, getWebClient()
+                .get()
+                .uri(logPath)
+                .header(HttpHeaders.RANGE, range)
+                .accept(MediaType.ALL)
+                .httpRequest(transport.responseTimeout(BambooOperation.LOGS))
+                .exchangeToMono(response -> {
+                    String contentRange = response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_RANGE);
+                    long total = parseContentRangeTotal(contentRange);
+
+                    if (response.statusCode().value() == 416) {
+                        // Nothing past the requested offset
+                        long end = total >= 0 ? total : Math.max(offset, 0);
+                        return response.releaseBody()
+                                .then(Mono.fromSupplier(() -> new BambooLogChunk(end, total,
+                                        DefaultDataBufferFactory.sharedInstance.allocateBuffer(0))));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+
+                    Flux<DataBuffer> body = response.bodyToFlux(DataBuffer.class);
+                    if (response.statusCode().value() != 206) {
+                        // Range not honoured: the body is the whole log. Use it only if it fits in one chunk,
+                        // otherwise fail instead of downloading the log from byte 0 again for every chunk
+                        return DataBufferUtils.join(body, maxBytes)
+                                .onErrorMap(DataBufferLimitException.class,
+                                        error -> new RangeNotSupportedException(logPath, maxBytes))
+                                .defaultIfEmpty(DefaultDataBufferFactory.sharedInstance.allocateBuffer(0))
+                                .map(data -> {
+                                    int length = data.readableByteCount();
+                                    int start = (int) Math.min(Math.max(offset, 0), length);
+                                    data.readPosition(data.readPosition() + start);
+                                    return new BambooLogChunk(start, length, data);
+                                });
+                    }
+
+                    long start = parseContentRangeStart(contentRange, Math.max(offset, 0));
+                    return DataBufferUtils.join(DataBufferUtils.takeUntilByteCount(body, maxBytes), maxBytes)
+                            .defaultIfEmpty(DefaultDataBufferFactory.sharedInstance.allocateBuffer(0))
+                            .map(data -> new BambooLogChunk(start, total, data));
+                }));
+    }
+
+    /**
+     * The server ignored the Range header and the log is larger than one chunk
+     */
+    public static class RangeNotSupportedException extends RuntimeException {
+        public RangeNotSupportedException(String logPath, int maxBytes) {
+            super("Bamboo ignored the Range request for " + logPath + " and the log exceeds " + maxBytes + " bytes");
+        }
+    }
+
+    // "bytes 100-199/1000" or "bytes */1000"
+    private static long parseContentRangeTotal(String contentRange) {
+        if (contentRange == null || contentRange.indexOf('/') < 0) {
+            return -1;
+        }
+        String total = contentRange.substring(contentRange.indexOf('/') + 1).trim();
+        return "*".equals(total) ? -1 : Long.parseLong(total);
+    }
+
+    private static long parseContentRangeStart(String contentRange, long fallback) {
+        if (contentRange == null) {
+            return fallback;
+        }
+        int space = contentRange.indexOf(' ');
+        int dash = contentRange.indexOf('-');
+        if (space < 0 || dash < space) {
+            return fallback;
+        }
+        return Long.parseLong(contentRange.substring(space + 1, dash).trim());
     }
 
     /**
-     * Get available plans from Bamboo
+     * Get one page of available plans from Bamboo, with their stages
+     * @param startIndex Index of the first plan to return
+     * @param maxResults Page size
      * @return List of available plans
      */
-    public Mono<BambooPlanList> getPlans() {
-        return getWebClient()
+    public Mono<BambooPlanList> getPlans(int startIndex, int maxResults) {
+        return call(BambooOperation.PLANS, BambooPriority.LOW, getWebClient()
                 .get()
-                .uri("/rest/api/latest/plan")
+                .uri(uriBuilder -> uriBuilder
+                        .path("/rest/api/latest/plan")
+                        .queryParam("expand", "plans.plan.stages.stage")
+                        .queryParam("start-index", startIndex)
+                        .queryParam("max-results", maxResults)
+                        .build())
+                .httpRequest(transport.responseTimeout(BambooOperation.PLANS))
                 .retrieve()
-                .bodyToMono(BambooPlanList.class);
+                .bodyToMono(BambooPlanList.class));
     }
 
     /**
-     * Get specific plan details
+     * Get specific plan details, with stages
      * @param planKey The plan key
      * @return Plan details
      */
     public Mono<BambooPlanDetails> getPlanDetails(String planKey) {
-        return getWebClient()
+        return call(BambooOperation.PLANS, BambooPriority.LOW, getWebClient()
                 .get()
-                .uri("/rest/api/latest/plan/{planKey}", planKey)
+                .uri(uriBuilder -> uriBuilder
+                        .path("/rest/api/latest/plan/{planKey}")
+                        .queryParam("expand", "stages.stage")
+                        .build(planKey))
+                .httpRequest(transport.responseTimeout(BambooOperation.PLANS))
                 .retrieve()
-                .bodyToMono(BambooPlanDetails.class);
+                .bodyToMono(BambooPlanDetails.class));
     }
 
     /**
@@ -130,11 +389,12 @@ public class BambooClient {
     public Mono<Void> stopBuild(String buildResultKey) {
         log.info("Stopping build: {}", buildResultKey);
 
-        return getWebClient()
+        return call(BambooOperation.TRIGGER, BambooPriority.NORMAL, getWebClient()
                 .delete()
                 .uri("/rest/api/latest/queue/{buildResultKey}", buildResultKey)
+                .httpRequest(transport.responseTimeout(BambooOperation.TRIGGER))
                 .retrieve()
-                .bodyToMono(Void.class)
+                .bodyToMono(Void.class))
                 .doOnSuccess(v -> log.info("Build stopped successfully: {}", buildResultKey))
                 .doOnError(error -> log.error("Failed to stop build: {}", error.getMessage()));
     }
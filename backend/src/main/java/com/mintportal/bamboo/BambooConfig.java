@@ -5,6 +5,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Configuration
 @ConfigurationProperties(prefix = "bamboo")
 @Getter
@@ -16,4 +19,63 @@ public class BambooConfig {
     private String username;
     private String password;
     private long pollingInterval = 30000; // 30 seconds default
+    private Transport transport = new Transport();
+    private RateLimit rateLimit = new RateLimit();
+
+    @Getter
+    @Setter
+    public static class Transport {
+        private int maxConnections = 64;
+        private int pendingAcquireMaxCount = 256;
+        private long pendingAcquireTimeoutMillis = 5000;
+        private long connectTimeoutMillis = 3000;
+        private long maxIdleTimeSeconds = 30;
+        private long maxLifeTimeSeconds = 300;
+        private int maxInMemoryBytes = 4 * 1024 * 1024;
+        private Map<BambooOperation, Operation> operations = new EnumMap<>(BambooOperation.class);
+
+        public Operation operation(BambooOperation operation) {
+            return operations.getOrDefault(operation, new Operation());
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Operation {
+        // Max wait for a response (and between reads of a streamed body)
+        private long responseTimeoutMillis = 10000;
+        // Bulkhead
+        private int maxConcurrentCalls = 32;
+        private long maxWaitMillis = 0;
+        // Circuit breaker
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private long slowCallMillis = 5000;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private long openSeconds = 30;
+        private int halfOpenCalls = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+        private boolean enabled = true;
+        // Divide the budget by the number of live scheduler nodes
+        private boolean clusterWide = false;
+        private double permitsPerSecond = 20;
+        private double burst = 40;
+        // Share of the bucket that NORMAL / LOW calls must leave for higher priorities
+        private double normalReserve = 0.2;
+        private double lowReserve = 0.5;
+        // Optional per-operation caps on top of the shared budget
+        private Map<BambooOperation, Budget> operations = new EnumMap<>(BambooOperation.class);
+    }
+
+    @Getter
+    @Setter
+    public static class Budget {
+        private double permitsPerSecond;
+        private double burst;
+    }
 }
@@ -0,0 +1,16 @@
+package com.mintportal.bamboo;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+/**
+ * Byte range of a Bamboo build log
+ * @param start Offset of the first byte in {@code data}
+ * @param totalLength Log size reported by Bamboo (-1 if unknown)
+ * @param data Bytes read, possibly empty; the caller must release it
+ */
+public record BambooLogChunk(long start, long totalLength, DataBuffer data) {
+
+    public int length() {
+        return data.readableByteCount();
+    }
+}
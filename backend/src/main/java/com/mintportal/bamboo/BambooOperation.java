@@ -0,0 +1,12 @@
+package com.mintportal.bamboo;
+
+/**
+ * Classes of Bamboo calls; each has its own timeout, bulkhead and circuit breaker
+ * so a slow log download cannot starve triggers or status polls
+ */
+public enum BambooOperation {
+    TRIGGER,    // queue / stop builds
+    STATUS,     // build results and artifact lists
+    LOGS,       // build logs and artifact downloads
+    PLANS       // plan catalogue
+}
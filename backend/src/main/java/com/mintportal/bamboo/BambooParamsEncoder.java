@@ -0,0 +1,76 @@
+package com.mintportal.bamboo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bamboo 트리거 변수 인코더
+ * - 파라미터 값을 Bamboo 변수용 문자열로 변환 (Map / List / 배열 값은 JSON, 나머지는 toString)
+ * - JSON 직렬화는 Spring ObjectMapper 에서 만든 ObjectWriter 하나를 공유 (값마다 ObjectMapper 를 만들지 않음)
+ * - 트리거 요청은 bamboo.variable.* 를 URL 이 아닌 form body 로 전송 (COMPILERDICT JSON, 긴 BUILDBATOPTION 대응)
+ */
+@Component
+@Slf4j
+public class BambooParamsEncoder {
+
+    public static final String VARIABLE_PREFIX = "bamboo.variable.";
+
+    // ObjectWriter 는 불변이고 thread-safe 하므로 공유
+    private final ObjectWriter valueWriter;
+
+    public BambooParamsEncoder(ObjectMapper objectMapper) {
+        this.valueWriter = objectMapper.writer();
+    }
+
+    /**
+     * 파라미터를 String 맵으로 변환 (Bamboo API 요구사항, null 값은 제외)
+     */
+    public Map<String, String> toStringParams(Map<String, Object> params) {
+        Map<String, String> stringParams = new HashMap<>(Math.max(16, params.size() * 4 / 3 + 1));
+        params.forEach((key, value) -> {
+            if (value != null) {
+                stringParams.put(key, encodeValue(value));
+            }
+        });
+        return stringParams;
+    }
+
+    public String encodeValue(Object value) {
+        if (value instanceof CharSequence) {
+            return value.toString();
+        }
+        if (value instanceof Map || value instanceof Collection || value.getClass().isArray()) {
+            try {
+                return valueWriter.writeValueAsString(value);
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to serialize Bamboo parameter value as JSON: {}", e.getOriginalMessage());
+                return value.toString();
+            }
+        }
+        return value.toString();
+    }
+
+    /**
+     * 트리거 form body (bamboo.variable.KEY=VALUE, 인코딩은 form writer 가 처리)
+     */
+    public MultiValueMap<String, String> toFormData(Map<String, String> variables) {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>(variables != null ? variables.size() : 0);
+        if (variables != null) {
+            variables.forEach((key, value) -> {
+                if (value != null) {
+                    form.add(VARIABLE_PREFIX + key, value);
+                }
+            });
+        }
+        return form;
+    }
+}
@@ -1,13 +1,22 @@
 package com.mintportal.bamboo;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.mintportal.entity.Layer;
 import com.mintportal.entity.Project;
 import com.mintportal.entity.User;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Bamboo 빌드 파라미터 생성기
@@ -24,6 +33,14 @@ import java.util.Map;
 @Slf4j
 public class BambooParamsGenerator {
 
+    // 요청자/요청별로 달라지는 값은 동일 빌드 판단에서 제외
+    private static final Set<String> FINGERPRINT_EXCLUDED_KEYS = Set.of("SWDPUSERNAME", "BUILDREQUESTID");
+
+    // 키 정렬된 JSON 으로 직렬화하여 해시가 맵 순서에 영향받지 않도록 함
+    private static final ObjectWriter FINGERPRINT_WRITER = new ObjectMapper()
+            .writer()
+            .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
     /**
      * 프로젝트/레이어 설정에서 Bamboo 파라미터 맵 생성
      *
@@ -119,6 +136,28 @@ public class BambooParamsGenerator {
         return params;
     }
 
+    /**
+     * 병합된 파라미터의 해시 (SHA-256 hex)
+     * 같은 프로젝트/레이어/오버라이드로 생성되는 Bamboo 요청이면 요청자와 무관하게 같은 값
+     */
+    public String paramsFingerprint(
+            Project project,
+            Layer layer,
+            Map<String, Object> scmOverride,
+            Map<String, Object> buildOverride) {
+
+        Map<String, Object> params = generateParams(project, layer, null, scmOverride, buildOverride);
+        FINGERPRINT_EXCLUDED_KEYS.forEach(params::remove);
+
+        try {
+            byte[] json = FINGERPRINT_WRITER.writeValueAsBytes(params);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to fingerprint Bamboo params", e);
+        }
+    }
+
     /**
      * 빌드 스냅샷 생성 (재현 가능하도록 설정 저장)
      */
@@ -0,0 +1,238 @@
+package com.mintportal.bamboo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bamboo 플랜 / 스테이지 카탈로그 (메모리 캐시)
+ * - 전체 플랜 목록을 페이지 단위로 읽어 planKey 로 조회하는 맵에 보관 (조회는 Bamboo 호출 없이 O(1))
+ * - TTL 의 refresh-ahead-ratio 지점에서 백그라운드로 미리 갱신하여 읽는 쪽은 만료를 기다리지 않음
+ * - 갱신이 실패하면 이전 목록을 계속 사용 (TTL 이 지나면 stale 로 표시)
+ * - 목록에 없는 키는 갱신 이후 새로 만든 플랜일 수 있으므로 백그라운드 단건 조회로 확인, 없으면 잠시 부정 캐시
+ *   (확인 전까지는 UNKNOWN, 조회를 기다리지 않으므로 enqueue 트랜잭션 안에서 호출해도 블로킹 없음)
+ * - outbox relay 가 트리거 직전에 다시 확인하여 그 사이 없거나 비활성으로 확인된 플랜은 재시도 없이 실패 처리
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BambooPlanCatalog {
+
+    public record PlanInfo(String key, String name, String shortName, boolean enabled, List<String> stages) {}
+
+    public enum Validation { VALID, MISSING, DISABLED, UNKNOWN }
+
+    private record Snapshot(Map<String, PlanInfo> plans, Instant loadedAt) {}
+
+    private final BambooClient bambooClient;
+
+    @Value("${bamboo.plan-catalog.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bamboo.plan-catalog.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${bamboo.plan-catalog.refresh-ahead-ratio:0.8}")
+    private double refreshAheadRatio;
+
+    @Value("${bamboo.plan-catalog.page-size:500}")
+    private int pageSize;
+
+    @Value("${bamboo.plan-catalog.request-timeout-seconds:30}")
+    private long requestTimeoutSeconds;
+
+    @Value("${bamboo.plan-catalog.lookup-timeout-seconds:5}")
+    private long lookupTimeoutSeconds;
+
+    @Value("${bamboo.plan-catalog.missing-ttl-seconds:60}")
+    private long missingTtlSeconds;
+
+    // 첫 로드 전에는 null
+    private volatile Snapshot snapshot;
+
+    // 목록에 없다고 확인된 키 → 부정 캐시 만료 시각 (epoch millis)
+    private final Map<String, Long> missingPlans = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    // 진행 중인 단건 조회 (같은 키를 동시에 여러 번 조회하지 않도록)
+    private final Set<String> lookups = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 기동 직후 1회 로드, 이후 refresh-ahead 시점이 되면 갱신
+     * 갱신은 worker 에서 실행하여 스케줄러 스레드를 막지 않음
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${bamboo.plan-catalog.check-interval:30000}")
+    public void refreshIfDue() {
+        if (!enabled) {
+            return;
+        }
+        Snapshot current = snapshot;
+        if (current != null
+                && Duration.between(current.loadedAt(), Instant.now()).toMillis() < ttlSeconds * 1000 * refreshAheadRatio) {
+            return;
+        }
+        if (refreshing.get()) {
+            return;
+        }
+        Mono.fromRunnable(this::refresh)
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe();
+    }
+
+    /**
+     * 전체 플랜 목록 다시 읽기 (동시에 하나만 실행)
+     * @return 갱신 성공 여부
+     */
+    public boolean refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            Map<String, PlanInfo> plans = new ConcurrentHashMap<>();
+            int startIndex = 0;
+            while (true) {
+                BambooPlanList page = bambooClient.getPlans(startIndex, pageSize)
+                        .block(Duration.ofSeconds(requestTimeoutSeconds));
+                List<BambooPlanList.Plan> batch = page != null && page.getPlans() != null && page.getPlans().getPlan() != null
+                        ? page.getPlans().getPlan()
+                        : List.of();
+                for (BambooPlanList.Plan plan : batch) {
+                    if (plan.getKey() != null) {
+                        plans.put(plan.getKey(), new PlanInfo(plan.getKey(), plan.getName(), plan.getShortName(),
+                                !Boolean.FALSE.equals(plan.getEnabled()), stageNames(plan.getStages())));
+                    }
+                }
+                if (batch.size() < pageSize) {
+                    break;
+                }
+                startIndex += batch.size();
+            }
+
+            snapshot = new Snapshot(plans, Instant.now());
+            missingPlans.clear();
+            log.info("Bamboo plan catalog refreshed: {} plans", plans.size());
+            return true;
+        } catch (Exception e) {
+            Snapshot current = snapshot;
+            log.warn("Failed to refresh Bamboo plan catalog, keeping {} cached plans: {}",
+                    current != null ? current.plans().size() : 0, e.getMessage());
+            return false;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * 트리거 가능한 플랜인지 확인 (Bamboo 호출을 기다리지 않음)
+     * 카탈로그를 아직 읽지 못했거나 목록에 없는 키를 확인 중이면 UNKNOWN
+     * (허용, BambooOutboxRelay 가 트리거 직전에 다시 확인하고 그때도 UNKNOWN 이면 Bamboo 응답으로 판단)
+     */
+    public Validation validate(String planKey) {
+        Snapshot current = snapshot;
+        if (!enabled || current == null || planKey == null) {
+            return Validation.UNKNOWN;
+        }
+
+        PlanInfo plan = current.plans().get(planKey);
+        if (plan != null) {
+            return plan.enabled() ? Validation.VALID : Validation.DISABLED;
+        }
+
+        Long missingUntil = missingPlans.get(planKey);
+        if (missingUntil != null && missingUntil > System.currentTimeMillis()) {
+            return Validation.MISSING;
+        }
+
+        // 목록 갱신 이후 생성된 플랜일 수 있으므로 백그라운드로 단건 조회, 결과는 다음 확인부터 반영
+        lookup(planKey);
+        return Validation.UNKNOWN;
+    }
+
+    private void lookup(String planKey) {
+        if (!lookups.add(planKey)) {
+            return;
+        }
+        bambooClient.getPlanDetails(planKey)
+                .timeout(Duration.ofSeconds(lookupTimeoutSeconds))
+                .doFinally(signal -> lookups.remove(planKey))
+                .subscribe(details -> {
+                    PlanInfo found = new PlanInfo(planKey, details.getName(), null,
+                            !Boolean.FALSE.equals(details.getEnabled()), stageNames(details.getStages()));
+                    // 그 사이 목록이 갱신됐으면 새 목록에 추가
+                    Snapshot latest = snapshot;
+                    if (latest != null) {
+                        latest.plans().put(planKey, found);
+                    }
+                }, error -> {
+                    if (error instanceof WebClientResponseException.NotFound) {
+                        missingPlans.put(planKey, System.currentTimeMillis() + missingTtlSeconds * 1000);
+                    } else {
+                        log.debug("Failed to look up Bamboo plan {}: {}", planKey, error.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * 트리거할 수 없는 플랜이면 IllegalArgumentException
+     */
+    public void requireTriggerable(String planKey) {
+        switch (validate(planKey)) {
+            case MISSING -> throw new IllegalArgumentException("Unknown Bamboo plan: " + planKey);
+            case DISABLED -> throw new IllegalArgumentException("Bamboo plan is disabled: " + planKey);
+            default -> {
+            }
+        }
+    }
+
+    public Optional<PlanInfo> getPlan(String planKey) {
+        Snapshot current = snapshot;
+        return current != null ? Optional.ofNullable(current.plans().get(planKey)) : Optional.empty();
+    }
+
+    public List<PlanInfo> getPlans() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return List.of();
+        }
+        return current.plans().values().stream()
+                .sorted(Comparator.comparing(PlanInfo::key))
+                .toList();
+    }
+
+    public Map<String, Object> getStatus() {
+        Snapshot current = snapshot;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("loaded", current != null);
+        status.put("size", current != null ? current.plans().size() : 0);
+        status.put("loadedAt", current != null ? current.loadedAt() : null);
+        status.put("stale", current == null
+                || Duration.between(current.loadedAt(), Instant.now()).getSeconds() >= ttlSeconds);
+        return status;
+    }
+
+    private static List<String> stageNames(BambooPlanDetails.StagesWrapper stages) {
+        if (stages == null || stages.getStage() == null) {
+            return List.of();
+        }
+        return stages.getStage().stream()
+                .map(BambooPlanDetails.Stage::getName)
+                .toList();
+    }
+}
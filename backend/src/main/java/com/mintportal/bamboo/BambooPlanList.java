@@ -21,6 +21,12 @@ public class BambooPlanList {
 
         @JsonProperty("size")
         private Integer size;
+
+        @JsonProperty("start-index")
+        private Integer startIndex;
+
+        @JsonProperty("max-result")
+        private Integer maxResult;
     }
 
     @Data
@@ -40,5 +46,9 @@ public class BambooPlanList {
 
         @JsonProperty("enabled")
         private Boolean enabled;
+
+        // Only populated when requested with expand=plans.plan.stages.stage
+        @JsonProperty("stages")
+        private BambooPlanDetails.StagesWrapper stages;
     }
 }
@@ -0,0 +1,12 @@
+package com.mintportal.bamboo;
+
+/**
+ * Priority of a Bamboo call when the rate limit budget is tight.
+ * Lower priorities may only spend tokens above their reserve, so HIGH calls
+ * (release layer triggers and status checks) are served first.
+ */
+public enum BambooPriority {
+    HIGH,
+    NORMAL,
+    LOW
+}
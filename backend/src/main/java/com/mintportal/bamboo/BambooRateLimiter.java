@@ -0,0 +1,255 @@
+package com.mintportal.bamboo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket rate limiter in front of every Bamboo call
+ * - One shared bucket for all traffic, plus optional per-operation buckets that cap a single call type
+ * - Priorities: NORMAL and LOW calls only spend tokens above their reserve, so when the budget is
+ *   tight HIGH calls (release layer triggers / status checks) go first and LOW calls (logs, plans) wait
+ * - Callers that cannot get a token wait in a queue per priority; tokens are handed out HIGH first,
+ *   FIFO within a priority, so a waiting HIGH call is never overtaken by a NORMAL or LOW one
+ * - Waiting is non-blocking: the caller's Mono completes when its turn comes, cancelling it leaves the queue
+ * - Cluster-wide mode splits the budget evenly across live scheduler nodes
+ */
+@Component
+@Slf4j
+public class BambooRateLimiter {
+
+    private static final long MIN_WAIT_NANOS = Duration.ofMillis(1).toNanos();
+
+    private final BambooConfig.RateLimit config;
+    private final Bucket global;
+    private final Map<BambooOperation, Bucket> operationBuckets = new EnumMap<>(BambooOperation.class);
+
+    // Waiting callers per priority, FIFO (guarded by this)
+    private final Map<BambooPriority, ArrayDeque<Waiter>> waiters = new EnumMap<>(BambooPriority.class);
+    private Disposable drainTimer;
+    private long drainAtNanos;
+
+    private final AtomicLong granted = new AtomicLong();
+    private final AtomicLong delayed = new AtomicLong();
+    private volatile int clusterSize = 1;
+
+    private record Waiter(BambooOperation operation, MonoSink<Void> sink) {}
+
+    public BambooRateLimiter(BambooConfig bambooConfig) {
+        this.config = bambooConfig.getRateLimit();
+        this.global = new Bucket(config.getPermitsPerSecond(), config.getBurst());
+        config.getOperations().forEach((operation, budget) -> {
+            if (budget.getPermitsPerSecond() > 0) {
+                operationBuckets.put(operation, new Bucket(budget.getPermitsPerSecond(),
+                        budget.getBurst() > 0 ? budget.getBurst() : budget.getPermitsPerSecond()));
+            }
+        });
+        for (BambooPriority priority : BambooPriority.values()) {
+            waiters.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Completes once a token for this call is granted
+     */
+    public Mono<Void> acquire(BambooOperation operation, BambooPriority priority) {
+        if (!config.isEnabled()) {
+            return Mono.empty();
+        }
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(operation, sink);
+            sink.onCancel(() -> cancel(priority, waiter));
+            enqueue(priority, waiter);
+        });
+    }
+
+    /**
+     * Completes once a token is granted, or fails with {@link WaitTimeoutException} if none is granted
+     * within {@code maxWait}. The call has not been sent in that case, so it is safe to retry later.
+     */
+    public Mono<Void> acquire(BambooOperation operation, BambooPriority priority, Duration maxWait) {
+        return acquire(operation, priority).timeout(maxWait, Mono.error(() -> new WaitTimeoutException(
+                "No Bamboo rate limit token for " + operation + " within " + maxWait.toMillis() + "ms")));
+    }
+
+    private void enqueue(BambooPriority priority, Waiter waiter) {
+        synchronized (this) {
+            waiters.get(priority).addLast(waiter);
+        }
+        if (!drain().contains(waiter)) {
+            delayed.incrementAndGet();
+        }
+    }
+
+    private void cancel(BambooPriority priority, Waiter waiter) {
+        boolean removed;
+        synchronized (this) {
+            removed = waiters.get(priority).remove(waiter);
+        }
+        // The cancelled waiter may have been holding up others of its operation
+        if (removed) {
+            drain();
+        }
+    }
+
+    /**
+     * Hand out available tokens to waiters in priority order and re-arm the timer for the rest.
+     * Sinks are completed outside the lock so the callers' requests do not run while holding it.
+     *
+     * @return the waiters granted a token
+     */
+    private List<Waiter> drain() {
+        List<Waiter> ready = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            long nextWaitNanos = Long.MAX_VALUE;
+            // Operations whose oldest waiter is still waiting, so later ones of the same kind keep their place
+            Set<BambooOperation> blocked = EnumSet.noneOf(BambooOperation.class);
+
+            outer:
+            for (BambooPriority priority : BambooPriority.values()) {
+                Iterator<Waiter> queue = waiters.get(priority).iterator();
+                while (queue.hasNext()) {
+                    Waiter waiter = queue.next();
+                    if (blocked.contains(waiter.operation())) {
+                        continue;
+                    }
+                    long globalWait = global.waitNanos(now, 1.0 / clusterSize, reserve(priority));
+                    if (globalWait > 0) {
+                        // Lower priorities need an even larger share of the bucket, so nobody else can go now
+                        nextWaitNanos = Math.min(nextWaitNanos, globalWait);
+                        break outer;
+                    }
+                    Bucket operationBucket = operationBuckets.get(waiter.operation());
+                    long operationWait = operationBucket != null
+                            ? operationBucket.waitNanos(now, 1.0 / clusterSize, 0)
+                            : 0;
+                    if (operationWait > 0) {
+                        blocked.add(waiter.operation());
+                        nextWaitNanos = Math.min(nextWaitNanos, operationWait);
+                        continue;
+                    }
+                    global.take();
+                    if (operationBucket != null) {
+                        operationBucket.take();
+                    }
+                    granted.incrementAndGet();
+                    queue.remove();
+                    ready.add(waiter);
+                }
+            }
+            if (nextWaitNanos != Long.MAX_VALUE) {
+                scheduleDrain(now, Math.max(nextWaitNanos, MIN_WAIT_NANOS));
+            }
+        }
+        ready.forEach(waiter -> waiter.sink().success());
+        return ready;
+    }
+
+    // Keep a single timer armed for the earliest time a waiter could be served (guarded by this)
+    private void scheduleDrain(long now, long waitNanos) {
+        long at = now + waitNanos;
+        // A timer whose time has passed has fired (or is about to) and re-arms itself if still needed
+        boolean pending = drainTimer != null && drainAtNanos - now > 0;
+        if (pending && drainAtNanos - at <= MIN_WAIT_NANOS) {
+            return;
+        }
+        if (drainTimer != null) {
+            drainTimer.dispose();
+        }
+        drainAtNanos = at;
+        drainTimer = Schedulers.parallel().schedule(this::drain, waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private double reserve(BambooPriority priority) {
+        return switch (priority) {
+            case HIGH -> 0;
+            case NORMAL -> config.getNormalReserve();
+            case LOW -> config.getLowReserve();
+        };
+    }
+
+    /**
+     * Live scheduler node count, used to split the budget in cluster-wide mode
+     */
+    public void setClusterSize(int nodes) {
+        int size = config.isClusterWide() ? Math.max(1, nodes) : 1;
+        if (size != clusterSize) {
+            log.info("Bamboo rate limit shared by {} node(s): {}/s per node",
+                    size, String.format("%.1f", config.getPermitsPerSecond() / size));
+            clusterSize = size;
+        }
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", config.isEnabled());
+        status.put("permitsPerSecond", config.getPermitsPerSecond() / clusterSize);
+        status.put("availableTokens", global.tokens);
+        status.put("granted", granted.get());
+        status.put("delayed", delayed.get());
+        status.put("waiting", waiters.values().stream().mapToInt(ArrayDeque::size).sum());
+        status.put("clusterSize", clusterSize);
+        return status;
+    }
+
+    /**
+     * No token was granted within the caller's limit; the call was never sent
+     */
+    public static class WaitTimeoutException extends RuntimeException {
+        public WaitTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class Bucket {
+
+        private final double permitsPerSecond;
+        private final double burst;
+        private double tokens;
+        private long lastRefillNanos;
+
+        Bucket(double permitsPerSecond, double burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = Math.max(1, burst);
+            this.tokens = this.burst;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        /**
+         * Time until one token is available while keeping {@code reserve} (share of capacity) untouched
+         */
+        long waitNanos(long now, double scale, double reserve) {
+            double capacity = Math.max(1, burst * scale);
+            double rate = permitsPerSecond * scale;
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * rate / 1e9);
+            lastRefillNanos = now;
+
+            double needed = Math.min(capacity, 1 + reserve * capacity);
+            if (tokens >= needed) {
+                return 0;
+            }
+            return (long) Math.ceil((needed - tokens) / rate * 1e9);
+        }
+
+        void take() {
+            tokens -= 1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.mintportal.bamboo;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BambooResultList {
+
+    @JsonProperty("results")
+    private Results results;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Results {
+        @JsonProperty("result")
+        private List<BambooBuildStatus> result;
+
+        @JsonProperty("size")
+        private Integer size;
+
+        @JsonProperty("max-result")
+        private Integer maxResult;
+    }
+
+    public List<BambooBuildStatus> getResultList() {
+        return results != null && results.getResult() != null ? results.getResult() : List.of();
+    }
+}
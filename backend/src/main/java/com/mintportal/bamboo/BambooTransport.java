@@ -0,0 +1,182 @@
+package com.mintportal.bamboo;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Shared HTTP transport for all Bamboo calls
+ * - One WebClient over a sized Reactor Netty connection pool, built once at startup
+ * - Per-operation response timeout, bulkhead (max concurrent calls) and circuit breaker
+ * - While a breaker is open calls fail fast with CallNotPermittedException instead of
+ *   waiting on a sick server; callers can check {@link #isOpen} to pause work up front
+ * - 4xx responses (other than 429) are caller errors and do not count as failures
+ */
+@Component
+@Slf4j
+public class BambooTransport {
+
+    private record Guard(Duration responseTimeout, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {}
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final Map<BambooOperation, Guard> guards = new EnumMap<>(BambooOperation.class);
+
+    public BambooTransport(BambooConfig config) {
+        BambooConfig.Transport transport = config.getTransport();
+
+        this.connectionProvider = ConnectionProvider.builder("bamboo")
+                .maxConnections(transport.getMaxConnections())
+                .pendingAcquireMaxCount(transport.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(transport.getPendingAcquireTimeoutMillis()))
+                .maxIdleTime(Duration.ofSeconds(transport.getMaxIdleTimeSeconds()))
+                .maxLifeTime(Duration.ofSeconds(transport.getMaxLifeTimeSeconds()))
+                .evictInBackground(Duration.ofSeconds(transport.getMaxIdleTimeSeconds()))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) transport.getConnectTimeoutMillis());
+
+        WebClient.Builder builder = WebClient.builder()
+                .baseUrl(config.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(transport.getMaxInMemoryBytes()))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+
+        // Add authentication
+        if (config.getApiToken() != null && !config.getApiToken().isEmpty()) {
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + config.getApiToken());
+        } else if (config.getUsername() != null && config.getPassword() != null) {
+            String auth = config.getUsername() + ":" + config.getPassword();
+            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Basic " + encodedAuth);
+        }
+        this.webClient = builder.build();
+
+        for (BambooOperation operation : BambooOperation.values()) {
+            guards.put(operation, createGuard(operation, transport.operation(operation)));
+        }
+    }
+
+    private static Guard createGuard(BambooOperation operation, BambooConfig.Operation settings) {
+        String name = "bamboo-" + operation.name().toLowerCase();
+
+        CircuitBreaker circuitBreaker = CircuitBreaker.of(name, CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumCalls())
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(Duration.ofMillis(settings.getSlowCallMillis()))
+                .waitDurationInOpenState(Duration.ofSeconds(settings.getOpenSeconds()))
+                .permittedNumberOfCallsInHalfOpenState(settings.getHalfOpenCalls())
+                .recordException(BambooTransport::isFailure)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Bamboo {} circuit breaker: {}", operation, event.getStateTransition()));
+
+        Bulkhead bulkhead = Bulkhead.of(name, BulkheadConfig.custom()
+                .maxConcurrentCalls(settings.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ofMillis(settings.getMaxWaitMillis()))
+                .build());
+
+        return new Guard(Duration.ofMillis(settings.getResponseTimeoutMillis()), circuitBreaker, bulkhead);
+    }
+
+    private static boolean isFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status >= 500 || status == 429;
+        }
+        return true;
+    }
+
+    public WebClient webClient() {
+        return webClient;
+    }
+
+    /**
+     * Per-request response timeout of an operation, for {@code RequestHeadersSpec.httpRequest(...)}
+     */
+    public Consumer<ClientHttpRequest> responseTimeout(BambooOperation operation) {
+        Duration timeout = guards.get(operation).responseTimeout();
+        return request -> {
+            HttpClientRequest nativeRequest = request.getNativeRequest();
+            nativeRequest.responseTimeout(timeout);
+        };
+    }
+
+    /**
+     * Run a call under the operation's bulkhead and circuit breaker
+     */
+    public <T> Mono<T> guard(BambooOperation operation, Mono<T> call) {
+        Guard guard = guards.get(operation);
+        return call
+                .transformDeferred(BulkheadOperator.of(guard.bulkhead()))
+                .transformDeferred(CircuitBreakerOperator.of(guard.circuitBreaker()));
+    }
+
+    public <T> Flux<T> guard(BambooOperation operation, Flux<T> call) {
+        Guard guard = guards.get(operation);
+        return call
+                .transformDeferred(BulkheadOperator.of(guard.bulkhead()))
+                .transformDeferred(CircuitBreakerOperator.of(guard.circuitBreaker()));
+    }
+
+    /**
+     * Whether calls of this operation are currently rejected
+     */
+    public boolean isOpen(BambooOperation operation) {
+        CircuitBreaker.State state = guards.get(operation).circuitBreaker().getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        guards.forEach((operation, guard) -> {
+            CircuitBreaker.Metrics metrics = guard.circuitBreaker().getMetrics();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("state", guard.circuitBreaker().getState().name());
+            entry.put("failureRate", metrics.getFailureRate());
+            entry.put("slowCallRate", metrics.getSlowCallRate());
+            entry.put("notPermittedCalls", metrics.getNumberOfNotPermittedCalls());
+            entry.put("availableConcurrentCalls", guard.bulkhead().getMetrics().getAvailableConcurrentCalls());
+            status.put(operation.name().toLowerCase(), entry);
+        });
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProvider.dispose();
+    }
+}
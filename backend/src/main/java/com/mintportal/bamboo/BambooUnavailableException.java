@@ -0,0 +1,11 @@
+package com.mintportal.bamboo;
+
+/**
+ * A synchronous Bamboo call needed to complete a user request failed (503).
+ */
+public class BambooUnavailableException extends RuntimeException {
+
+    public BambooUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,205 @@
+package com.mintportal.buildlog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mintportal.bamboo.BambooClient;
+import com.mintportal.entity.BuildStageResult;
+import com.mintportal.repository.BuildStageResultRepository;
+import com.mintportal.scheduler.ClusterMembership;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Build 스테이지 컴파일 로그 증분 수집
+ * - 주기마다 이 노드 담당 스테이지의 로그를 마지막 위치 이후만 Range 요청으로 읽어 CompilerLogParser 에 전달
+ * - 에러/경고 개수, 처음 N 개 진단, 로그 미리보기를 스테이지 행에 한 트랜잭션으로 반영
+ * - 진행 위치(log_parsed_offset)를 함께 저장하므로 재시작 후에도 처음부터 다시 읽지 않음
+ * - 스테이지가 끝나고 로그를 끝까지 읽으면 log_parse_complete 로 표시하고 대상에서 제외
+ * - 로그가 없어진 스테이지(404)는 읽은 데까지로 완료 처리
+ * - 비동기로 실행되어 스케줄러 스레드를 막지 않음, 한 노드에서 동시에 하나의 수집만 실행
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuildLogIngestionService {
+
+    private final BuildStageResultRepository stageResultRepository;
+    private final BambooClient bambooClient;
+    private final ClusterMembership clusterMembership;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${scheduler.enabled:true}")
+    private boolean schedulerEnabled;
+
+    @Value("${bamboo.log-parse.stage-name:Build}")
+    private String stageName;
+
+    @Value("${bamboo.log-parse.concurrency:4}")
+    private int concurrency;
+
+    @Value("${bamboo.log-parse.chunk-bytes:1048576}")
+    private int chunkBytes;
+
+    @Value("${bamboo.log-parse.max-diagnostics:50}")
+    private int maxDiagnostics;
+
+    @Value("${bamboo.log-parse.preview-lines:20}")
+    private int previewLines;
+
+    @Value("${bamboo.log-parse.max-line-bytes:8192}")
+    private int maxLineBytes;
+
+    @Value("${bamboo.polling-timeout-seconds:10}")
+    private long timeoutSeconds;
+
+    // 이 기간 안에 완료된(또는 진행 중인) 스테이지만 대상 (로그 아카이브와 같은 기준)
+    @Value("${bamboo.log-parse.max-age-hours:72}")
+    private long maxAgeHours;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // 스테이지 ID → 파서 (다음 주기에 이어서 사용)
+    private final Map<String, CompilerLogParser> parsers = new ConcurrentHashMap<>();
+
+    private record Progress(String stageId, CompilerLogParser parser, boolean complete) {}
+
+    @Scheduled(fixedDelayString = "${bamboo.log-parse.interval:10000}")
+    public void ingest() {
+        if (!schedulerEnabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        Mono.fromCallable(this::findOwnedStages)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(this::parseNewBytes, concurrency)
+                .collectList()
+                .filter(progress -> !progress.isEmpty())
+                // 저장은 JPA 작업이므로 Netty 스레드가 아닌 worker 에서 실행
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(progress -> transactionTemplate.executeWithoutResult(tx -> saveProgress(progress)))
+                .doFinally(signal -> running.set(false))
+                .subscribe(null, error -> log.error("Log ingestion failed: {}", error.getMessage(), error));
+    }
+
+    private List<BuildStageResult> findOwnedStages() {
+        List<BuildStageResult> stages = stageResultRepository
+                .findLogsToParse(stageName, OffsetDateTime.now().minusHours(maxAgeHours)).stream()
+                .filter(stage -> stage.getBuild().getBambooBuildKey() != null)
+                .filter(stage -> clusterMembership.owns(stage.getBuild().getBambooBuildKey()))
+                .toList();
+        Set<String> stageIds = stages.stream().map(BuildStageResult::getId).collect(Collectors.toSet());
+        parsers.keySet().retainAll(stageIds);
+        return stages;
+    }
+
+    /**
+     * 스테이지 로그의 새 바이트를 chunk 단위로 끝까지 읽어 파싱
+     */
+    private Mono<Progress> parseNewBytes(BuildStageResult stage) {
+        CompilerLogParser parser = parsers.computeIfAbsent(stage.getId(), id -> restore(stage));
+        boolean finished = !"pending".equals(stage.getStatus()) && !"running".equals(stage.getStatus());
+        long startOffset = parser.getReadOffset();
+        boolean[] lastChunkFull = {false};
+
+        return Mono.defer(() -> bambooClient.getLogChunk(stage.getLogUrl(), parser.getReadOffset(), chunkBytes))
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .doOnNext(chunk -> {
+                    try {
+                        lastChunkFull[0] = chunk.length() >= chunkBytes;
+                        parser.feed(chunk.data());
+                    } finally {
+                        DataBufferUtils.release(chunk.data());
+                    }
+                })
+                .repeat(() -> lastChunkFull[0])
+                .then(Mono.fromSupplier(() -> {
+                    boolean complete = finished && !lastChunkFull[0];
+                    if (complete) {
+                        parser.finish();
+                    }
+                    return new Progress(stage.getId(), parser, complete);
+                }))
+                .filter(result -> result.complete() || parser.getReadOffset() != startOffset)
+                // 끝난 스테이지의 로그가 삭제/만료됐거나 Range 로 나눠 읽을 수 없으면 읽은 데까지로 완료 처리 (매 주기 재시도하지 않도록)
+                // 진행 중인 스테이지는 로그 파일이 아직 없을 수 있으므로 일반 실패와 같이 재시도
+                .onErrorResume(error -> finished && (error instanceof WebClientResponseException.NotFound
+                        || error instanceof BambooClient.RangeNotSupportedException), error -> {
+                    log.info("Log of stage {} is no longer available, finishing parse at offset {}",
+                            stage.getId(), parser.getReadOffset());
+                    parser.finish();
+                    return Mono.just(new Progress(stage.getId(), parser, true));
+                })
+                .onErrorResume(error -> {
+                    // 읽기 실패 시 저장된 위치부터 다시 시작
+                    parsers.remove(stage.getId());
+                    log.debug("Failed to read log of stage {}: {}", stage.getId(), error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private CompilerLogParser restore(BuildStageResult stage) {
+        CompilerLogParser parser = new CompilerLogParser(maxDiagnostics, previewLines, maxLineBytes);
+        long offset = stage.getLogParsedOffset() != null ? stage.getLogParsedOffset() : 0L;
+        if (offset > 0) {
+            parser.restore(offset, stage.getErrorCount(), stage.getWarningCount(),
+                    stage.getStageResult(), stage.getLogPreview());
+        }
+        return parser;
+    }
+
+    /**
+     * 파싱 관련 컬럼만 갱신 - 같은 행의 status / finished_at 등을 쓰는 상태 폴링과 겹쳐도 덮어쓰지 않음
+     */
+    private void saveProgress(List<Progress> progress) {
+        for (Progress result : progress) {
+            CompilerLogParser parser = result.parser();
+            stageResultRepository.updateLogParseProgress(
+                    result.stageId(),
+                    parser.getErrorCount(),
+                    parser.getWarningCount(),
+                    parser.getPreview(),
+                    parser.getCommittedOffset(),
+                    result.complete(),
+                    diagnosticsJson(parser));
+
+            if (result.complete()) {
+                parsers.remove(result.stageId());
+                log.debug("Parsed log of stage {}: {} errors, {} warnings",
+                        result.stageId(), parser.getErrorCount(), parser.getWarningCount());
+            }
+        }
+    }
+
+    // stage_result 에 병합할 errors / warnings
+    private String diagnosticsJson(CompilerLogParser parser) {
+        Map<String, Object> diagnostics = new HashMap<>();
+        diagnostics.put("errors", parser.getErrors());
+        diagnostics.put("warnings", parser.getWarnings());
+        try {
+            return objectMapper.writeValueAsString(diagnostics);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize log diagnostics", e);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.mintportal.buildlog;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ARMCC / GCC 컴파일 로그 증분 파서
+ * - 로그 chunk 를 도착하는 대로 바이트 단위로 처리 (로그 전체를 메모리에 두거나 다시 읽지 않음)
+ * - 줄 버퍼를 재사용하고, 진단 메시지 판정은 바이트 비교로 하여 줄마다 문자열을 만들지 않음
+ * - 에러/경고 개수는 전부 세고, 문자열로 보관하는 것은 처음 max-diagnostics 개와 미리보기 줄뿐
+ *
+ * 인식하는 형식
+ * - GCC / armclang: {@code file.c:12:5: error: ...}, {@code fatal error:}, {@code warning:}
+ * - ARMCC 5:        {@code "file.c", line 12: Error:  #20: ...}, {@code Warning:  #177-D: ...}
+ * - armlink / ld:   {@code Error: L6218E: ...}, {@code Warning: L6314W: ...}
+ */
+public class CompilerLogParser {
+
+    private static final byte[][] ERROR_MARKERS = bytes(": error:", ": fatal error:", ": Error:");
+    private static final byte[][] WARNING_MARKERS = bytes(": warning:", ": Warning:");
+    private static final byte[] ERROR_PREFIX = "Error:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WARNING_PREFIX = "Warning:".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Pattern GCC_LOCATION = Pattern.compile("^(.+?):(\\d+):(?:(\\d+):)?\\s*(?:fatal )?(?:error|warning):\\s*(.*)$");
+    private static final Pattern ARMCC_LOCATION = Pattern.compile("^\"(.+?)\", line (\\d+): (?:Error|Warning):\\s*(.*)$");
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private final int maxDiagnostics;
+    private final int previewLines;
+    private final int maxLineBytes;
+
+    private final byte[] line;
+    private int lineLength;
+
+    // 읽은 바이트 위치 / 마지막 완전한 줄의 끝 위치
+    private long readOffset;
+    private long committedOffset;
+
+    private int errorCount;
+    private int warningCount;
+    private final List<Map<String, Object>> errors = new ArrayList<>();
+    private final List<Map<String, Object>> warnings = new ArrayList<>();
+    private final List<String> preview = new ArrayList<>();
+
+    public CompilerLogParser(int maxDiagnostics, int previewLines, int maxLineBytes) {
+        this.maxDiagnostics = maxDiagnostics;
+        this.previewLines = previewLines;
+        this.maxLineBytes = maxLineBytes;
+        this.line = new byte[maxLineBytes];
+    }
+
+    /**
+     * 이전에 저장한 진행 상태에서 이어서 파싱
+     */
+    @SuppressWarnings("unchecked")
+    public void restore(long offset, int errorCount, int warningCount,
+                        Map<String, Object> stageResult, String logPreview) {
+        this.readOffset = offset;
+        this.committedOffset = offset;
+        this.errorCount = errorCount;
+        this.warningCount = warningCount;
+        if (stageResult != null) {
+            if (stageResult.get("errors") instanceof List<?> saved) {
+                saved.stream().limit(maxDiagnostics).forEach(d -> errors.add((Map<String, Object>) d));
+            }
+            if (stageResult.get("warnings") instanceof List<?> saved) {
+                saved.stream().limit(maxDiagnostics).forEach(d -> warnings.add((Map<String, Object>) d));
+            }
+        }
+        if (logPreview != null && !logPreview.isEmpty()) {
+            logPreview.lines().limit(previewLines).forEach(preview::add);
+        }
+    }
+
+    /**
+     * chunk 처리 (버퍼의 읽을 수 있는 바이트를 모두 소비, 해제는 호출 측 책임)
+     */
+    public void feed(DataBuffer data) {
+        int length = data.readableByteCount();
+        for (int i = 0; i < length; i++) {
+            byte b = data.read();
+            readOffset++;
+            if (b == '\n') {
+                endLine();
+                committedOffset = readOffset;
+            } else if (b != '\r' && lineLength < maxLineBytes) {
+                // 너무 긴 줄은 앞부분만으로 판정
+                line[lineLength++] = b;
+            }
+        }
+    }
+
+    /**
+     * 로그 끝: 줄바꿈 없이 끝난 마지막 줄 처리
+     */
+    public void finish() {
+        if (lineLength > 0) {
+            endLine();
+        }
+        committedOffset = readOffset;
+    }
+
+    private void endLine() {
+        // 미리보기는 진행 위치와 함께 저장되므로, 복원 후에도 이어지는 줄만 추가됨
+        if (preview.size() < previewLines) {
+            preview.add(new String(line, 0, lineLength, StandardCharsets.UTF_8));
+        }
+
+        if (containsAny(ERROR_MARKERS) || startsWith(ERROR_PREFIX)) {
+            errorCount++;
+            if (errors.size() < maxDiagnostics) {
+                errors.add(diagnostic());
+            }
+        } else if (containsAny(WARNING_MARKERS) || startsWith(WARNING_PREFIX)) {
+            warningCount++;
+            if (warnings.size() < maxDiagnostics) {
+                warnings.add(diagnostic());
+            }
+        }
+        lineLength = 0;
+    }
+
+    private Map<String, Object> diagnostic() {
+        String text = new String(line, 0, lineLength, StandardCharsets.UTF_8).trim();
+        Map<String, Object> diagnostic = new LinkedHashMap<>();
+
+        Matcher armcc = ARMCC_LOCATION.matcher(text);
+        Matcher gcc;
+        if (armcc.matches()) {
+            diagnostic.put("file", armcc.group(1));
+            diagnostic.put("line", Integer.parseInt(armcc.group(2)));
+            diagnostic.put("message", truncate(armcc.group(3)));
+        } else if ((gcc = GCC_LOCATION.matcher(text)).matches()) {
+            diagnostic.put("file", gcc.group(1));
+            diagnostic.put("line", Integer.parseInt(gcc.group(2)));
+            if (gcc.group(3) != null) {
+                diagnostic.put("column", Integer.parseInt(gcc.group(3)));
+            }
+            diagnostic.put("message", truncate(gcc.group(4)));
+        } else {
+            diagnostic.put("message", truncate(text));
+        }
+        return diagnostic;
+    }
+
+    private boolean containsAny(byte[][] markers) {
+        for (byte[] marker : markers) {
+            if (indexOf(marker) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(byte[] marker) {
+        outer:
+        for (int i = 0; i <= lineLength - marker.length; i++) {
+            for (int j = 0; j < marker.length; j++) {
+                if (line[i + j] != marker[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private boolean startsWith(byte[] prefix) {
+        int start = 0;
+        while (start < lineLength && (line[start] == ' ' || line[start] == '\t')) {
+            start++;
+        }
+        if (lineLength - start < prefix.length) {
+            return false;
+        }
+        for (int j = 0; j < prefix.length; j++) {
+            if (line[start + j] != prefix[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    private static byte[][] bytes(String... markers) {
+        byte[][] result = new byte[markers.length][];
+        for (int i = 0; i < markers.length; i++) {
+            result[i] = markers[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return result;
+    }
+
+    public long getReadOffset() {
+        return readOffset;
+    }
+
+    public long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    public List<Map<String, Object>> getErrors() {
+        return List.copyOf(errors);
+    }
+
+    public List<Map<String, Object>> getWarnings() {
+        return List.copyOf(warnings);
+    }
+
+    public String getPreview() {
+        return String.join("\n", preview);
+    }
+}
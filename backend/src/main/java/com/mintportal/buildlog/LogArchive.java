@@ -0,0 +1,370 @@
+package com.mintportal.buildlog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 스테이지 로그 로컬 아카이브
+ * - {stageId}.dat: 줄 경계에서 자른 블록을 각각 Deflate 로 압축해 이어 붙인 파일
+ * - {stageId}.idx: 블록별 (데이터 위치, 압축/원본 크기, 첫 줄 번호, 줄 수) 고정 길이 sparse 인덱스
+ * - 읽기는 인덱스를 memory-map 하여 이진 탐색한 뒤, 필요한 블록만 map 하여 압축 해제
+ *   (로그 전체를 풀지 않고 임의의 줄로 이동 가능)
+ * - 쓰기가 끝난 뒤 임시 파일을 rename 하므로 .idx 가 있으면 완성된 아카이브
+ *   (임시 파일 이름은 작성기마다 달라 여러 노드가 공유 디렉터리에 동시에 써도 섞이지 않음)
+ * - 전체 크기가 max-total-bytes 를 넘으면 오래된 아카이브부터 삭제
+ * - 크래시 등으로 남은 .tmp 파일은 tmp-max-age-minutes 가 지나면 정리
+ */
+@Component
+@Slf4j
+public class LogArchive {
+
+    private static final int MAGIC = 0x4D4C4F47;  // "MLOG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;   // magic, version, totalLines
+    private static final int ENTRY_BYTES = 28;    // dataOffset, compressedLength, length, firstLine, lineCount
+
+    private final Path root;
+    private final int blockLines;
+    private final int blockBytes;
+    private final long maxTotalBytes;
+    private final long tmpMaxAgeMillis;
+
+    public LogArchive(@Value("${log-archive.dir:./data/log-archive}") String dir,
+                      @Value("${log-archive.block-lines:1024}") int blockLines,
+                      @Value("${log-archive.block-bytes:262144}") int blockBytes,
+                      @Value("${log-archive.max-total-bytes:21474836480}") long maxTotalBytes,
+                      @Value("${log-archive.tmp-max-age-minutes:60}") long tmpMaxAgeMinutes) {
+        this.root = Paths.get(dir);
+        this.blockLines = blockLines;
+        this.blockBytes = blockBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        this.tmpMaxAgeMillis = tmpMaxAgeMinutes * 60_000;
+    }
+
+    public boolean exists(String stageId) {
+        return Files.exists(indexPath(stageId));
+    }
+
+    /**
+     * 새 아카이브 작성 시작 (close 시 완성, abort 시 폐기)
+     */
+    public Writer create(String stageId) throws IOException {
+        Files.createDirectories(root);
+        return new Writer(stageId);
+    }
+
+    /**
+     * 줄 범위 읽기
+     *
+     * @param fromLine 시작 줄 (0부터)
+     * @param count    최대 줄 수
+     */
+    public LogLines readLines(String stageId, long fromLine, int count) throws IOException {
+        try (FileChannel indexChannel = FileChannel.open(indexPath(stageId), StandardOpenOption.READ);
+             FileChannel dataChannel = FileChannel.open(dataPath(stageId), StandardOpenOption.READ)) {
+
+            MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+            if (index.getInt(0) != MAGIC || index.getInt(4) != VERSION) {
+                throw new IOException("Invalid log archive index: " + stageId);
+            }
+            long totalLines = index.getLong(8);
+            int blocks = (int) ((indexChannel.size() - HEADER_BYTES) / ENTRY_BYTES);
+
+            List<String> lines = new ArrayList<>(Math.min(count, 1024));
+            int block = findBlock(index, blocks, fromLine);
+            long lineNumber = fromLine;
+            while (block >= 0 && block < blocks && lines.size() < count) {
+                int entry = HEADER_BYTES + block * ENTRY_BYTES;
+                long dataOffset = index.getLong(entry);
+                int compressedLength = index.getInt(entry + 8);
+                int length = index.getInt(entry + 12);
+                long firstLine = index.getLong(entry + 16);
+
+                byte[] bytes = inflate(dataChannel.map(FileChannel.MapMode.READ_ONLY, dataOffset, compressedLength), length);
+                collectLines(bytes, lineNumber - firstLine, count, lines);
+                lineNumber = firstLine + index.getInt(entry + 24);
+                block++;
+            }
+            return new LogLines(fromLine, totalLines, lines);
+        }
+    }
+
+    public record LogLines(long fromLine, long totalLines, List<String> lines) {}
+
+    // fromLine 을 포함하는 블록 (없으면 -1)
+    private static int findBlock(ByteBuffer index, int blocks, long line) {
+        int low = 0;
+        int high = blocks - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = HEADER_BYTES + mid * ENTRY_BYTES;
+            long firstLine = index.getLong(entry + 16);
+            int lineCount = index.getInt(entry + 24);
+            if (line < firstLine) {
+                high = mid - 1;
+            } else if (line >= firstLine + lineCount) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] inflate(ByteBuffer compressed, int length) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] bytes = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(bytes, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    // 잘린 블록: 더 이상 풀 입력이 없음
+                    throw new IOException("Truncated log archive block");
+                }
+                read += n;
+            }
+            if (read < length) {
+                throw new IOException("Log archive block shorter than indexed length");
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt log archive block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void collectLines(byte[] bytes, long skip, int count, List<String> lines) {
+        int start = 0;
+        long line = 0;
+        for (int i = 0; i < bytes.length && lines.size() < count; i++) {
+            if (bytes[i] == '\n') {
+                if (line >= skip) {
+                    lines.add(new String(bytes, start, i - start, StandardCharsets.UTF_8));
+                }
+                line++;
+                start = i + 1;
+            }
+        }
+    }
+
+    /**
+     * 남은 임시 파일을 정리하고, 전체 크기가 상한을 넘으면 오래된 아카이브부터 삭제
+     *
+     * @return 삭제한 아카이브의 스테이지 ID
+     */
+    public List<String> enforceRetention() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        sweepTempFiles();
+        List<Path> indexes;
+        try (Stream<Path> files = Files.list(root)) {
+            indexes = files.filter(path -> path.toString().endsWith(".idx"))
+                    .sorted(Comparator.comparingLong(LogArchive::lastModified))
+                    .toList();
+        }
+        long total = 0;
+        for (Path index : indexes) {
+            total += size(index) + size(dataPathOf(index));
+        }
+        List<String> evicted = new ArrayList<>();
+        for (Path index : indexes) {
+            if (total <= maxTotalBytes) {
+                break;
+            }
+            long freed = size(index) + size(dataPathOf(index));
+            Files.deleteIfExists(index);
+            Files.deleteIfExists(dataPathOf(index));
+            total -= freed;
+            evicted.add(stageIdOf(index));
+            log.info("Evicted log archive {} ({} bytes)", index.getFileName(), freed);
+        }
+        return evicted;
+    }
+
+    /**
+     * 작성 중 크래시로 남은 .tmp 파일 삭제 (작성 중일 수 있는 최근 파일은 유지)
+     */
+    private void sweepTempFiles() throws IOException {
+        long cutoff = System.currentTimeMillis() - tmpMaxAgeMillis;
+        List<Path> stale;
+        try (Stream<Path> files = Files.list(root)) {
+            stale = files.filter(path -> path.toString().endsWith(".tmp"))
+                    .filter(path -> lastModified(path) < cutoff)
+                    .toList();
+        }
+        for (Path path : stale) {
+            Files.deleteIfExists(path);
+            log.info("Removed stale log archive temp file {}", path.getFileName());
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long size(Path path) {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private Path indexPath(String stageId) {
+        return root.resolve(stageId + ".idx");
+    }
+
+    private Path dataPath(String stageId) {
+        return root.resolve(stageId + ".dat");
+    }
+
+    private static Path dataPathOf(Path index) {
+        return index.resolveSibling(stageIdOf(index) + ".dat");
+    }
+
+    private static String stageIdOf(Path index) {
+        String name = index.getFileName().toString();
+        return name.substring(0, name.length() - 4);
+    }
+
+    /**
+     * 아카이브 작성기: 바이트를 받아 줄 경계에서 블록으로 잘라 압축 저장
+     */
+    public final class Writer implements AutoCloseable {
+
+        private final String stageId;
+        private final Path dataTemp;
+        private final Path indexTemp;
+        private final FileChannel data;
+        private final FileChannel index;
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final byte[] deflateBuffer = new byte[64 * 1024];
+
+        private int blockLineCount;
+        private long blockFirstLine;
+        private long totalLines;
+        private long dataOffset;
+        private byte lastByte = '\n';
+        private boolean finished;
+
+        private Writer(String stageId) throws IOException {
+            this.stageId = stageId;
+            String writerId = UUID.randomUUID().toString();
+            this.dataTemp = root.resolve(stageId + ".dat." + writerId + ".tmp");
+            this.indexTemp = root.resolve(stageId + ".idx." + writerId + ".tmp");
+            this.data = FileChannel.open(dataTemp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.index = FileChannel.open(indexTemp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.index.write(ByteBuffer.allocate(HEADER_BYTES), 0);
+        }
+
+        public void write(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                byte b = bytes.get();
+                block.write(b);
+                lastByte = b;
+                if (b == '\n') {
+                    endLine();
+                } else if (block.size() >= blockBytes * 4) {
+                    // 줄바꿈 없는 매우 긴 줄은 강제로 나눔
+                    block.write('\n');
+                    lastByte = '\n';
+                    endLine();
+                }
+            }
+        }
+
+        private void endLine() throws IOException {
+            blockLineCount++;
+            totalLines++;
+            if (blockLineCount >= blockLines || block.size() >= blockBytes) {
+                flushBlock();
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (block.size() == 0) {
+                return;
+            }
+            byte[] raw = block.toByteArray();
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            int compressedLength = 0;
+            while (!deflater.finished()) {
+                int n = deflater.deflate(deflateBuffer);
+                data.write(ByteBuffer.wrap(deflateBuffer, 0, n), dataOffset + compressedLength);
+                compressedLength += n;
+            }
+
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+            entry.putLong(dataOffset).putInt(compressedLength).putInt(raw.length)
+                    .putLong(blockFirstLine).putInt(blockLineCount).flip();
+            index.write(entry, index.size());
+
+            dataOffset += compressedLength;
+            blockFirstLine += blockLineCount;
+            blockLineCount = 0;
+            block.reset();
+        }
+
+        /**
+         * 로그 끝: 마지막 블록을 기록하고 아카이브를 완성
+         */
+        public void finish() throws IOException {
+            if (lastByte != '\n') {
+                block.write('\n');
+                blockLineCount++;
+                totalLines++;
+            }
+            flushBlock();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(totalLines).flip();
+            index.write(header, 0);
+            data.force(true);
+            index.force(true);
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            data.close();
+            index.close();
+            if (finished) {
+                Files.move(dataTemp, dataPath(stageId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Files.move(indexTemp, indexPath(stageId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(dataTemp);
+                Files.deleteIfExists(indexTemp);
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.mintportal.buildlog;
+
+import com.mintportal.bamboo.BambooClient;
+import com.mintportal.bamboo.BambooLogChunk;
+import com.mintportal.entity.BuildStageResult;
+import com.mintportal.repository.BuildStageResultRepository;
+import com.mintportal.scheduler.ClusterMembership;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 스테이지 로그 아카이브 관리
+ * - 완료된 스테이지 로그를 Bamboo 에서 chunk 단위로 읽어 LogArchive 에 저장 (Bamboo 빌드 만료 대비)
+ * - 빌드를 담당하는 노드가 log-archive.dir 에 저장 (Bamboo 호출/압축은 전용 스레드 풀에서 실행)
+ * - log-archive.dir 이 노드 로컬 디스크이면 아카이브를 만든 노드에서만 조회 가능 (다른 노드는 404)
+ *   → 여러 노드로 운영할 때는 모든 노드가 같은 공유 스토리지를 log-archive.dir 로 사용
+ * - 줄 범위 조회는 아카이브에서 필요한 블록만 풀어서 응답
+ * - 결과는 archive_status 에 기록해 다시 받지 않음
+ *   (archived, missing: Bamboo 에 로그 없음, failed: max-attempts 회 실패, evicted: 보관 한도로 삭제)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LogArchiveService {
+
+    private static final int MAX_LINES_PER_READ = 5000;
+
+    private final LogArchive logArchive;
+    private final BuildStageResultRepository stageResultRepository;
+    private final BambooClient bambooClient;
+    private final ClusterMembership clusterMembership;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${log-archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scheduler.enabled:true}")
+    private boolean schedulerEnabled;
+
+    // 이 기간 안에 완료된 스테이지만 아카이브 (기동 시 오래된 이력 전체를 받지 않도록)
+    @Value("${log-archive.max-age-hours:72}")
+    private long maxAgeHours;
+
+    @Value("${log-archive.batch-size:10}")
+    private int batchSize;
+
+    // 동시에 아카이브하는 스테이지 수 (전용 스레드 수)
+    @Value("${log-archive.concurrency:2}")
+    private int concurrency;
+
+    // 일시적인 오류로 실패한 스테이지를 다시 시도하는 최대 횟수 (초과 시 failed)
+    @Value("${log-archive.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${bamboo.log-stream.chunk-bytes:1048576}")
+    private int chunkBytes;
+
+    @Value("${bamboo.polling-timeout-seconds:10}")
+    private long timeoutSeconds;
+
+    // 아카이브 전용 스레드 풀 (대기열은 batch-size 로 제한, 큐에 있거나 작성 중인 스테이지는 다시 넣지 않음)
+    private ThreadPoolExecutor archiveExecutor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // 스테이지별 연속 실패 횟수 (상태를 기록하면 제거)
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+    private final ReentrantLock retentionLock = new ReentrantLock();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        archiveExecutor = new ThreadPoolExecutor(Math.max(1, concurrency), Math.max(1, concurrency),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, batchSize)), runnable -> {
+                    Thread thread = new Thread(runnable, "log-archive-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        archiveExecutor.shutdownNow();
+    }
+
+    /**
+     * 아카이브 대상 선정 후 전용 스레드 풀에 전달 (스케줄러 스레드에서는 조회만 수행)
+     */
+    @Scheduled(fixedDelayString = "${log-archive.interval:60000}")
+    public void archiveFinishedLogs() {
+        if (!enabled || !schedulerEnabled) {
+            return;
+        }
+        int capacity = archiveExecutor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+
+        List<BuildStageResult> pending = stageResultRepository
+                .findFinishedLogsSince(OffsetDateTime.now().minusHours(maxAgeHours)).stream()
+                .filter(stage -> stage.getBuild().getBambooBuildKey() != null)
+                .filter(stage -> clusterMembership.owns(stage.getBuild().getBambooBuildKey()))
+                .filter(stage -> !inFlight.contains(stage.getId()))
+                .filter(stage -> !logArchive.exists(stage.getId()))
+                .limit(capacity)
+                .toList();
+
+        for (BuildStageResult stage : pending) {
+            inFlight.add(stage.getId());
+            try {
+                archiveExecutor.execute(() -> archiveAndRetain(stage));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(stage.getId());
+                break;
+            }
+        }
+    }
+
+    private void archiveAndRetain(BuildStageResult stage) {
+        try {
+            archive(stage);
+            markArchiveStatus(List.of(stage.getId()), "archived");
+        } catch (WebClientResponseException.NotFound | BambooClient.RangeNotSupportedException e) {
+            // Bamboo 에 로그가 없거나 나눠 받을 수 없음 - 다시 시도해도 같으므로 바로 기록
+            log.info("Log of stage {} cannot be archived: {}", stage.getId(), e.getMessage());
+            markArchiveStatus(List.of(stage.getId()), "missing");
+        } catch (Exception e) {
+            log.warn("Failed to archive log of stage {}: {}", stage.getId(), e.getMessage());
+            if (failures.merge(stage.getId(), 1, Integer::sum) >= maxAttempts) {
+                markArchiveStatus(List.of(stage.getId()), "failed");
+            }
+        } finally {
+            inFlight.remove(stage.getId());
+        }
+
+        // 여러 작성 스레드가 동시에 디렉터리를 훑지 않도록 한 번에 하나만
+        if (retentionLock.tryLock()) {
+            try {
+                List<String> evicted = logArchive.enforceRetention();
+                if (!evicted.isEmpty()) {
+                    // 삭제한 아카이브를 다음 주기에 다시 받지 않도록
+                    markArchiveStatus(evicted, "evicted");
+                }
+            } catch (IOException e) {
+                log.warn("Failed to enforce log archive retention: {}", e.getMessage());
+            } finally {
+                retentionLock.unlock();
+            }
+        }
+    }
+
+    private void markArchiveStatus(List<String> stageIds, String status) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> stageResultRepository.updateArchiveStatus(stageIds, status));
+            stageIds.forEach(failures::remove);
+        } catch (Exception e) {
+            // 기록하지 못하면 다음 주기에 다시 대상이 됨
+            log.warn("Failed to record archive status {} of stages {}: {}", status, stageIds, e.getMessage());
+        }
+    }
+
+    private void archive(BuildStageResult stage) throws IOException {
+        try (LogArchive.Writer writer = logArchive.create(stage.getId())) {
+            long offset = 0;
+            boolean more = true;
+            while (more) {
+                BambooLogChunk chunk = bambooClient.getLogChunk(stage.getLogUrl(), offset, chunkBytes)
+                        .block(Duration.ofSeconds(timeoutSeconds));
+                if (chunk == null) {
+                    break;
+                }
+                DataBuffer data = chunk.data();
+                try (DataBuffer.ByteBufferIterator buffers = data.readableByteBuffers()) {
+                    while (buffers.hasNext()) {
+                        writer.write(buffers.next());
+                    }
+                } finally {
+                    DataBufferUtils.release(data);
+                }
+                offset = chunk.start() + chunk.length();
+                more = chunk.length() >= chunkBytes;
+            }
+            writer.finish();
+        }
+        log.debug("Archived log of stage {} ({} {})", stage.getId(), stage.getBuild().getId(), stage.getStageName());
+    }
+
+    /**
+     * 아카이브된 스테이지 로그의 줄 범위 조회
+     *
+     * @param fromLine 시작 줄 (0부터)
+     * @param lines    최대 줄 수 (최대 5000)
+     */
+    public LogArchive.LogLines readLines(String buildId, String stageName, long fromLine, int lines) {
+        BuildStageResult stage = stageResultRepository.findByBuildIdAndStageName(buildId, stageName)
+                .orElseThrow(() -> new RuntimeException("Stage not found: " + buildId + "/" + stageName));
+        if (!logArchive.exists(stage.getId())) {
+            throw new RuntimeException("Log not archived: " + buildId + "/" + stageName);
+        }
+        try {
+            return logArchive.readLines(stage.getId(), Math.max(0, fromLine),
+                    Math.max(1, Math.min(lines, MAX_LINES_PER_READ)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read log archive: " + e.getMessage(), e);
+        }
+    }
+}
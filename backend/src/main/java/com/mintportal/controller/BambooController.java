@@ -0,0 +1,48 @@
+package com.mintportal.controller;
+
+import com.mintportal.bamboo.BambooPlanCatalog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bamboo 플랜 카탈로그 조회 (캐시에서 응답, Bamboo 를 직접 호출하지 않음)
+ */
+@RestController
+@RequestMapping("/api/bamboo")
+@RequiredArgsConstructor
+@Tag(name = "Bamboo", description = "Bamboo 플랜 API")
+public class BambooController {
+
+    private final BambooPlanCatalog planCatalog;
+
+    @GetMapping("/plans")
+    @Operation(summary = "Bamboo 플랜 목록 조회")
+    public ResponseEntity<Map<String, Object>> getPlans() {
+        Map<String, Object> response = new HashMap<>(planCatalog.getStatus());
+        response.put("plans", planCatalog.getPlans());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/plans/{planKey}")
+    @Operation(summary = "Bamboo 플랜 상세 조회")
+    public ResponseEntity<BambooPlanCatalog.PlanInfo> getPlan(@PathVariable String planKey) {
+        return planCatalog.getPlan(planKey)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/plans/refresh")
+    @Operation(summary = "Bamboo 플랜 목록 즉시 갱신")
+    public ResponseEntity<Map<String, Object>> refresh() {
+        boolean refreshed = planCatalog.refresh();
+        Map<String, Object> response = new HashMap<>(planCatalog.getStatus());
+        response.put("refreshed", refreshed);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,19 +1,33 @@
 package com.mintportal.controller;
 
+import com.mintportal.buildlog.LogArchive;
+import com.mintportal.buildlog.LogArchiveService;
 import com.mintportal.dto.BuildResponse;
 import com.mintportal.dto.BuildTriggerRequest;
 import com.mintportal.entity.Build;
 import com.mintportal.entity.BuildStageResult;
 import com.mintportal.scheduler.BuildSchedulerService;
+import com.mintportal.scheduler.BuildStatusPollingService;
+import com.mintportal.service.BuildLogStreamService;
 import com.mintportal.service.BuildService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,6 +38,9 @@ public class BuildController {
 
     private final BuildService buildService;
     private final BuildSchedulerService schedulerService;
+    private final BuildStatusPollingService pollingService;
+    private final BuildLogStreamService logStreamService;
+    private final LogArchiveService logArchiveService;
 
     @GetMapping
     @Operation(summary = "빌드 목록 조회 (필터 지원)")
@@ -69,6 +86,63 @@ public class BuildController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/stages/{stageName}/log")
+    @Operation(summary = "아카이브된 스테이지 로그 줄 범위 조회",
+            description = "아카이브는 log-archive.dir 에 저장됩니다. 이 디렉터리가 노드 로컬 디스크이면 " +
+                    "해당 빌드를 아카이브한 노드에서만 조회되고 다른 노드는 404 (Log not archived) 를 반환합니다. " +
+                    "여러 노드로 운영할 때는 log-archive.dir 을 모든 노드가 공유하는 스토리지로 지정하세요.")
+    public ResponseEntity<LogArchive.LogLines> getStageLog(
+            @PathVariable String id,
+            @PathVariable String stageName,
+            @RequestParam(defaultValue = "0") long fromLine,
+            @RequestParam(defaultValue = "500") int lines) {
+        return ResponseEntity.ok(logArchiveService.readLines(id, stageName, fromLine, lines));
+    }
+
+    @GetMapping(path = "/{id}/stages/{stageName}/log/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "스테이지 로그 실시간 스트리밍 (SSE, 추가된 줄마다 line 이벤트, 종료 시 end 이벤트)")
+    public SseEmitter streamStageLog(
+            @PathVariable String id,
+            @PathVariable String stageName) {
+        Flux<String> lines = logStreamService.tail(id, stageName);
+
+        // 이 응답만 async timeout 없음 (스테이지 종료 또는 클라이언트 연결 해제까지 유지)
+        SseEmitter emitter = new SseEmitter(0L);
+        Disposable.Composite subscriptions = Disposables.composite();
+        Consumer<Throwable> fail = error -> {
+            subscriptions.dispose();
+            emitter.completeWithError(error);
+        };
+        // 응답 쓰기가 공유 upstream 스레드를 막지 않도록 시청자별로 분리
+        subscriptions.add(lines
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(
+                        line -> sendEvent(emitter, SseEmitter.event().name("line").data(line)),
+                        fail,
+                        () -> {
+                            subscriptions.dispose();
+                            sendEvent(emitter, SseEmitter.event().name("end").data(""));
+                            emitter.complete();
+                        }));
+        // 새 줄이 없는 동안에도 주기적으로 comment 를 보내 끊긴 연결을 감지 (전송 실패 시 구독 해제)
+        Duration heartbeat = logStreamService.heartbeatInterval();
+        subscriptions.add(Flux.interval(heartbeat, heartbeat)
+                .subscribe(tick -> sendEvent(emitter, SseEmitter.event().comment("heartbeat")), fail));
+        emitter.onCompletion(subscriptions::dispose);
+        emitter.onTimeout(subscriptions::dispose);
+        emitter.onError(error -> subscriptions.dispose());
+        return emitter;
+    }
+
+    private static void sendEvent(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            // 클라이언트 연결 해제 - 구독 취소로 이어짐
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/active")
     @Operation(summary = "진행 중인 빌드 조회")
     public ResponseEntity<List<BuildResponse>> findActiveBuilds() {
@@ -126,7 +200,27 @@ public class BuildController {
         return ResponseEntity.ok(Map.of(
                 "queueId", queueItem.getId(),
                 "status", queueItem.getQueueStatus(),
-                "message", "Build queued successfully"
+                "coalesced", queueItem.isCoalesced(),
+                "message", queueItem.isCoalesced()
+                        ? "Build merged into an identical queued request"
+                        : "Build queued successfully"
+        ));
+    }
+
+    @PostMapping("/trigger/batch")
+    @Operation(summary = "빌드 일괄 트리거 (큐에 추가)")
+    public ResponseEntity<Map<String, Object>> triggerBuilds(@RequestBody List<BuildTriggerRequest> requests) {
+        List<Map<String, Object>> results = schedulerService.enqueueBatch(requests);
+
+        long failed = results.stream().filter(r -> r.containsKey("error")).count();
+        long coalesced = results.stream().filter(r -> Boolean.TRUE.equals(r.get("coalesced"))).count();
+
+        return ResponseEntity.ok(Map.of(
+                "total", results.size(),
+                "queued", results.size() - failed,
+                "coalesced", coalesced,
+                "failed", failed,
+                "results", results
         ));
     }
 
@@ -149,6 +243,13 @@ public class BuildController {
         return ResponseEntity.ok(stage);
     }
 
+    @PostMapping("/{id}/cancel")
+    @Operation(summary = "실행 중인 빌드 취소 (Bamboo 빌드 중지)")
+    public ResponseEntity<BuildResponse> cancel(@PathVariable String id) {
+        Build build = pollingService.cancelBuild(id);
+        return ResponseEntity.ok(BuildResponse.fromEntity(build));
+    }
+
     @PatchMapping("/{id}/release-status")
     @Operation(summary = "릴리즈 상태 업데이트")
     public ResponseEntity<BuildResponse> updateReleaseStatus(
@@ -55,12 +55,8 @@ public class BuildQueueController {
     @PostMapping("/{id}/cancel")
     @Operation(summary = "큐 아이템 취소")
     public ResponseEntity<Map<String, String>> cancel(@PathVariable String id) {
-        try {
-            schedulerService.cancelQueueItem(id);
-            return ResponseEntity.ok(Map.of("message", "Queue item cancelled successfully"));
-        } catch (IllegalStateException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        schedulerService.cancelQueueItem(id);
+        return ResponseEntity.ok(Map.of("message", "Queue item cancelled successfully"));
     }
 
     @PostMapping("/{id}/priority")
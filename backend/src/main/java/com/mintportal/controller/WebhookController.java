@@ -43,6 +43,7 @@ public class WebhookController {
             }
 
             log.info("Build webhook received for: {}", buildKey);
+            pollingService.handleBuildWebhook(buildKey, extractString(payload, "lifeCycleState"));
             return ResponseEntity.ok(Map.of("status", "received"));
         } catch (Exception e) {
             log.error("Error processing build webhook: {}", e.getMessage());
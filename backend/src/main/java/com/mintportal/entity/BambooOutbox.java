@@ -0,0 +1,118 @@
+package com.mintportal.entity;
+
+import io.hypersistence.utils.hibernate.type.json.JsonType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Type;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bamboo 트리거 outbox 엔티티
+ * BuildRequest 와 같은 트랜잭션에서 기록되고, relay 가 커밋 후 Bamboo 로 전송
+ */
+@Entity
+@Table(name = "bamboo_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BambooOutbox {
+
+    @Id
+    @Column(length = 50)
+    private String id;
+
+    @Column(name = "queue_id", nullable = false, length = 50)
+    private String queueId;
+
+    @Column(name = "request_id", nullable = false, length = 50)
+    private String requestId;
+
+    @Column(name = "build_id", nullable = false, length = 50)
+    private String buildId;
+
+    @Column(name = "plan_key", length = 100)
+    private String planKey;
+
+    // Bamboo 로 전송할 변수 (String 변환 완료)
+    @Type(JsonType.class)
+    @Column(name = "params", nullable = false, columnDefinition = "jsonb")
+    private Map<String, String> params;
+
+    // 재전송 시에도 동일한 값 (Bamboo 변수 MINT_IDEMPOTENCY_KEY 로 전달)
+    // Bamboo 는 이 값으로 중복을 거르지 않으므로, 재전송 전에 최근 결과에서 이 값을 찾아 이미 큐잉됐는지 확인
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 50)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 20)
+    private String status;  // pending, sending, sent, failed, cancelled
+
+    // Bamboo 호출 우선순위 (release Layer 는 high, 나머지 normal)
+    @Column(length = 10)
+    @Builder.Default
+    private String priority = "normal";
+
+    @Column
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "lease_expires_at")
+    private OffsetDateTime leaseExpiresAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private OffsetDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (id == null) id = UUID.randomUUID().toString();
+        if (idempotencyKey == null) idempotencyKey = id;
+        if (createdAt == null) createdAt = OffsetDateTime.now();
+        if (status == null) status = "pending";
+        if (attempts == null) attempts = 0;
+        if (priority == null) priority = "normal";
+    }
+
+    // relay 가 전송 시작
+    public void startSending(String nodeId, OffsetDateTime leaseUntil) {
+        this.status = "sending";
+        this.attempts++;
+        this.claimedBy = nodeId;
+        this.leaseExpiresAt = leaseUntil;
+    }
+
+    // 전송 완료
+    public void markSent() {
+        this.status = "sent";
+        this.sentAt = OffsetDateTime.now();
+        this.claimedBy = null;
+        this.leaseExpiresAt = null;
+    }
+
+    // 빌드 취소 (대기 중이면 전송하지 않고, 전송 중이면 응답을 받은 뒤 Bamboo 빌드를 중지)
+    public void markCancelled() {
+        this.status = "cancelled";
+        this.claimedBy = null;
+        this.leaseExpiresAt = null;
+    }
+
+    // 전송 실패 (큐 아이템 재시도로 처리)
+    public void markFailed(String errorMessage) {
+        this.status = "failed";
+        this.lastError = errorMessage;
+        this.claimedBy = null;
+        this.leaseExpiresAt = null;
+    }
+}
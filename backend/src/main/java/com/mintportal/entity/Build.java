@@ -11,7 +11,9 @@ import java.util.List;
 import java.util.Map;
 
 @Entity
-@Table(name = "builds")
+@Table(name = "builds", indexes = {
+        @Index(name = "idx_builds_bamboo_build_key", columnList = "bamboo_build_key", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -104,6 +106,10 @@ public class Build {
     @Column(name = "duration_seconds")
     private Integer durationSeconds;
 
+    // 마지막 Bamboo webhook 수신 시각 (최근 수신 빌드는 폴링 생략)
+    @Column(name = "last_push_at")
+    private OffsetDateTime lastPushAt;
+
     @Column(name = "created_at")
     private OffsetDateTime createdAt;
 
@@ -136,6 +142,16 @@ public class Build {
         }
     }
 
+    // Bamboo webhook 수신 기록
+    public void recordPush() {
+        this.lastPushAt = OffsetDateTime.now();
+    }
+
+    // 완료 webhook 수신: push 추적을 끝내 담당 노드 폴링이 silence window 에 막히지 않도록 함
+    public void clearPush() {
+        this.lastPushAt = null;
+    }
+
     // 빌드 시작 처리
     public void start() {
         this.status = "running";
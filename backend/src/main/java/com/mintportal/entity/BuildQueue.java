@@ -6,6 +6,9 @@ import lombok.*;
 import org.hibernate.annotations.Type;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -59,6 +62,22 @@ public class BuildQueue {
     @Column(name = "build_override", columnDefinition = "jsonb")
     private Map<String, Object> buildOverride;
 
+    // 병합된 Bamboo 파라미터 해시 (동일 요청 병합용, 요청자 무관)
+    @Column(name = "params_hash", length = 64)
+    private String paramsHash;
+
+    // 이 아이템으로 병합된 모든 요청자
+    @Type(JsonType.class)
+    @Column(name = "requesters", columnDefinition = "jsonb")
+    @Builder.Default
+    private List<Map<String, Object>> requesters = new ArrayList<>();
+    /*
+        requesters: [
+            {"requester_id": "user-001", "req_method": "scheduled", "priority": 0, "requested_at": "..."},
+            {"requester_id": "user-002", "req_method": "manual", "priority": 5, "requested_at": "..."}
+        ]
+    */
+
     // Timing
     @Column(name = "queued_at")
     private OffsetDateTime queuedAt;
@@ -78,6 +97,16 @@ public class BuildQueue {
     @Column(name = "last_error", columnDefinition = "TEXT")
     private String lastError;
 
+    @Column(name = "next_attempt_at")
+    private OffsetDateTime nextAttemptAt;  // 재시도 대기 중이면 이 시각 이후에 처리
+
+    // Claim (멀티 노드 스케줄러 점유 정보)
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;  // 처리 중인 스케줄러 노드 ID
+
+    @Column(name = "lease_expires_at")
+    private OffsetDateTime leaseExpiresAt;  // 만료 시 다른 노드가 회수
+
     @PrePersist
     protected void onCreate() {
         if (id == null) id = UUID.randomUUID().toString();
@@ -86,6 +115,34 @@ public class BuildQueue {
         if (priority == null) priority = 0;
         if (retryCount == null) retryCount = 0;
         if (maxRetries == null) maxRetries = 3;
+        if (requesters == null) requesters = new ArrayList<>();
+    }
+
+    // 요청자 기록
+    public void addRequester(String requesterId, String method, int requestedPriority) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("requester_id", requesterId);
+        entry.put("req_method", method);
+        entry.put("priority", requestedPriority);
+        entry.put("requested_at", OffsetDateTime.now().toString());
+
+        // JSON 컬럼 변경 감지를 위해 새 리스트로 교체
+        List<Map<String, Object>> updated = new ArrayList<>(requesters != null ? requesters : List.of());
+        updated.add(entry);
+        this.requesters = updated;
+    }
+
+    // 동일한 대기 요청 병합 (우선순위는 최대값으로 상향)
+    public void mergeRequest(String requesterId, String method, int requestedPriority) {
+        addRequester(requesterId, method, requestedPriority);
+        if (this.priority == null || requestedPriority > this.priority) {
+            this.priority = requestedPriority;
+        }
+    }
+
+    // 다른 요청이 병합되었는지 여부
+    public boolean isCoalesced() {
+        return requesters != null && requesters.size() > 1;
     }
 
     // 처리 시작
@@ -94,22 +151,53 @@ public class BuildQueue {
         this.processedAt = OffsetDateTime.now();
     }
 
+    // 노드가 처리 권한 획득
+    public void claim(String nodeId, OffsetDateTime leaseUntil) {
+        startProcessing();
+        this.claimedBy = nodeId;
+        this.leaseExpiresAt = leaseUntil;
+    }
+
+    // 처리 권한 반납
+    public void releaseClaim() {
+        this.claimedBy = null;
+        this.leaseExpiresAt = null;
+    }
+
     // 처리 완료
     public void markCompleted() {
         this.queueStatus = "completed";
+        releaseClaim();
     }
 
-    // 실패 처리
-    public void markFailed(String errorMessage) {
+    // 취소 처리 (준비가 끝나 트리거 대기 중인 아이템 포함)
+    public void markCancelled() {
+        this.queueStatus = "cancelled";
+        releaseClaim();
+    }
+
+    // 실패 처리 (nextAttemptAt 이후 재시도)
+    public void markFailed(String errorMessage, OffsetDateTime nextAttemptAt) {
         this.lastError = errorMessage;
         this.retryCount++;
+        releaseClaim();
         if (this.retryCount >= this.maxRetries) {
             this.queueStatus = "failed";
+            this.nextAttemptAt = null;
         } else {
             this.queueStatus = "waiting";  // 재시도 대기
+            this.nextAttemptAt = nextAttemptAt;
         }
     }
 
+    // 재시도해도 같은 결과인 실패 (재시도 횟수와 무관하게 바로 failed)
+    public void markFailedWithoutRetry(String errorMessage) {
+        this.lastError = errorMessage;
+        this.queueStatus = "failed";
+        this.nextAttemptAt = null;
+        releaseClaim();
+    }
+
     // 재시도 가능 여부
     public boolean canRetry() {
         return this.retryCount < this.maxRetries;
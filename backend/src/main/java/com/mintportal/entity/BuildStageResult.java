@@ -6,6 +6,7 @@ import lombok.*;
 import org.hibernate.annotations.Type;
 
 import java.time.OffsetDateTime;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -93,6 +94,23 @@ public class BuildStageResult {
     @Column(name = "log_preview", columnDefinition = "TEXT")
     private String logPreview;  // 처음 몇 줄
 
+    // 로그 파싱 진행 위치 (마지막으로 처리한 완전한 줄의 끝, 재시작 시 여기서 이어서 읽음)
+    @Column(name = "log_parsed_offset")
+    @Builder.Default
+    private Long logParsedOffset = 0L;
+
+    @Column(name = "log_parse_complete")
+    @Builder.Default
+    private Boolean logParseComplete = false;
+
+    // SAM / Coverity 리포트 수집 상태 (null: 대기, ingested, missing, failed)
+    @Column(name = "report_status", length = 20)
+    private String reportStatus;
+
+    // 로그 아카이브 상태 (null: 대기, archived, missing, failed, evicted)
+    @Column(name = "archive_status", length = 20)
+    private String archiveStatus;
+
     // Timing
     @Column(name = "started_at")
     private OffsetDateTime startedAt;
@@ -114,6 +132,8 @@ public class BuildStageResult {
         if (status == null) status = "pending";
         if (errorCount == null) errorCount = 0;
         if (warningCount == null) warningCount = 0;
+        if (logParsedOffset == null) logParsedOffset = 0L;
+        if (logParseComplete == null) logParseComplete = false;
     }
 
     // 스테이지 시작
@@ -122,11 +142,15 @@ public class BuildStageResult {
         this.startedAt = OffsetDateTime.now();
     }
 
-    // 스테이지 완료
+    // 스테이지 완료 (로그 파싱 등으로 먼저 채워진 결과는 유지하고 병합)
     public void complete(boolean success, Map<String, Object> result) {
         this.status = success ? "success" : "failed";
         this.finishedAt = OffsetDateTime.now();
-        this.stageResult = result;
+        if (result != null) {
+            Map<String, Object> merged = this.stageResult != null ? new HashMap<>(this.stageResult) : new HashMap<>();
+            merged.putAll(result);
+            this.stageResult = merged;
+        }
         if (this.startedAt != null) {
             this.durationSeconds = (int) java.time.Duration.between(startedAt, finishedAt).getSeconds();
         }
@@ -0,0 +1,30 @@
+package com.mintportal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 스케줄러 클러스터 멤버 엔티티
+ * 각 백엔드 노드가 주기적으로 heartbeat 를 기록하며, 최근 heartbeat 가 있는 노드만 live 로 간주
+ */
+@Entity
+@Table(name = "scheduler_members")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerMember {
+
+    @Id
+    @Column(name = "node_id", length = 100)
+    private String nodeId;
+
+    @Column(name = "started_at", nullable = false)
+    private OffsetDateTime startedAt;
+
+    @Column(name = "last_heartbeat_at", nullable = false)
+    private OffsetDateTime lastHeartbeatAt;
+}
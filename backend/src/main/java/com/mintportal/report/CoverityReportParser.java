@@ -0,0 +1,63 @@
+package com.mintportal.report;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Coverity 리포트 파서 (cov-format-errors --json-output-v7)
+ * - 심각도는 checkerProperties.impact 기준 (High / Medium / Low, 그 외는 info 로 분류)
+ * - events 등 이슈별 상세 경로는 읽지 않고 건너뜀
+ *
+ * stage_result: defect_count, critical, high, medium, low, issues
+ */
+public class CoverityReportParser extends JsonReportParser {
+
+    public CoverityReportParser(int maxIssues) {
+        super(maxIssues);
+    }
+
+    @Override
+    protected String totalField() {
+        return "defect_count";
+    }
+
+    @Override
+    protected Map<String, Object> readIssue(JsonParser parser) throws IOException {
+        Map<String, Object> issue = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "cid" -> putIfPresent(issue, "cid", number(parser));
+                case "checkerName" -> putIfPresent(issue, "checker", text(parser));
+                case "mainEventFilePathname" -> putIfPresent(issue, "file", text(parser));
+                case "mainEventLineNumber" -> putIfPresent(issue, "line", number(parser));
+                case "functionDisplayName" -> putIfPresent(issue, "function", text(parser));
+                case "checkerProperties" -> readCheckerProperties(parser, issue);
+                default -> parser.skipChildren();
+            }
+        }
+        return issue;
+    }
+
+    private void readCheckerProperties(JsonParser parser, Map<String, Object> issue) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "impact" -> putIfPresent(issue, "severity", text(parser));
+                case "category" -> putIfPresent(issue, "category", text(parser));
+                case "subcategoryShortDescription" -> putIfPresent(issue, "description", text(parser));
+                default -> parser.skipChildren();
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.mintportal.report;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * JSON 분석 리포트 스트리밍 파서 공통 부분
+ * - 최상위 객체의 issues 배열을 토큰 단위로 읽어 이슈 하나씩만 메모리에 올림 (리포트 전체를 트리로 만들지 않음)
+ * - 심각도별 개수는 전부 세고, 보관하는 이슈는 심각도 순 상위 max-issues 개뿐
+ * - 이슈 필드 해석과 issues 외 최상위 필드는 하위 클래스가 담당
+ */
+public abstract class JsonReportParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final int MAX_TEXT_LENGTH = 1000;
+
+    private static final String[] SEVERITIES = {"critical", "high", "medium", "low", "info"};
+
+    private final int maxIssues;
+
+    protected JsonReportParser(int maxIssues) {
+        this.maxIssues = maxIssues;
+    }
+
+    public StageReport parse(InputStream in) throws IOException {
+        Map<String, Object> result = new HashMap<>();
+        int[] counts = new int[SEVERITIES.length];
+        TopIssues top = new TopIssues(maxIssues);
+
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Report must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("issues".equals(field) && token == JsonToken.START_ARRAY) {
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token != JsonToken.START_OBJECT) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        Map<String, Object> issue = readIssue(parser);
+                        int rank = rank((String) issue.get("severity"));
+                        issue.put("severity", SEVERITIES[rank]);
+                        counts[rank]++;
+                        countIssue(issue, result);
+                        top.offer(rank, issue);
+                    }
+                } else if (!readField(field, parser, result)) {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        result.put(totalField(), total);
+        for (int rank = 0; rank < SEVERITIES.length - 1; rank++) {
+            result.put(SEVERITIES[rank], counts[rank]);
+        }
+        result.put("issues", top.toList());
+        finish(result);
+
+        return new StageReport(result, counts[0] + counts[1], counts[2] + counts[3]);
+    }
+
+    /**
+     * 이슈 객체 하나를 읽음 (START_OBJECT 위치에서 호출, END_OBJECT 까지 소비)
+     * 반환 맵의 "severity" 는 원본 값 그대로 두면 공통 부분에서 정규화
+     */
+    protected abstract Map<String, Object> readIssue(JsonParser parser) throws IOException;
+
+    // 전체 이슈 수를 담을 필드 이름
+    protected abstract String totalField();
+
+    // issues 외 최상위 필드 처리 (처리하지 않으면 false, 값은 건너뜀)
+    protected boolean readField(String field, JsonParser parser, Map<String, Object> result) throws IOException {
+        return false;
+    }
+
+    // 이슈마다 추가 집계
+    protected void countIssue(Map<String, Object> issue, Map<String, Object> result) {
+    }
+
+    // 집계 완료 후 추가 필드 정리
+    protected void finish(Map<String, Object> result) {
+    }
+
+    /**
+     * 현재 값을 문자열로 읽음 (객체/배열이면 건너뛰고 null)
+     */
+    protected static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String value = parser.getValueAsString();
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            value = value.substring(0, MAX_TEXT_LENGTH);
+        }
+        return value;
+    }
+
+    /**
+     * 현재 값을 숫자로 읽음 (숫자 문자열 허용, 그 외는 null)
+     */
+    protected static Number number(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != null && token.isNumeric()) {
+            return parser.getNumberValue();
+        }
+        String value = text(parser);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    protected static void putIfPresent(Map<String, Object> issue, String key, Object value) {
+        if (value != null) {
+            issue.put(key, value);
+        }
+    }
+
+    /**
+     * 도구마다 다른 심각도 표기를 critical / high / medium / low / info 순위로 변환
+     */
+    static int rank(String severity) {
+        if (severity == null) {
+            return 4;
+        }
+        return switch (severity.trim().toLowerCase()) {
+            case "critical", "very high", "blocker", "fatal" -> 0;
+            case "high", "major", "error" -> 1;
+            case "medium", "moderate", "warning" -> 2;
+            case "low", "minor" -> 3;
+            default -> 4;
+        };
+    }
+
+    /**
+     * 심각도 순 상위 N 개 이슈 (같은 심각도는 먼저 나온 것 우선)
+     */
+    private static class TopIssues {
+
+        private record Entry(int rank, long seq, Map<String, Object> issue) {}
+
+        private static final Comparator<Entry> ORDER =
+                Comparator.comparingInt(Entry::rank).thenComparingLong(Entry::seq);
+
+        private final int limit;
+        // 머리에 가장 덜 중요한 이슈 (교체 대상)
+        private final PriorityQueue<Entry> heap;
+        private long seq;
+
+        TopIssues(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(ORDER.reversed());
+        }
+
+        void offer(int rank, Map<String, Object> issue) {
+            if (limit <= 0) {
+                return;
+            }
+            Entry entry = new Entry(rank, seq++, issue);
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (ORDER.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        List<Map<String, Object>> toList() {
+            List<Entry> entries = new ArrayList<>(heap);
+            entries.sort(ORDER);
+            List<Map<String, Object>> issues = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                issues.add(entry.issue());
+            }
+            return issues;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.mintportal.report;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.mintportal.bamboo.BambooBuildStatus;
+import com.mintportal.bamboo.BambooClient;
+import com.mintportal.entity.Build;
+import com.mintportal.entity.BuildStageResult;
+import com.mintportal.repository.BuildStageResultRepository;
+import com.mintportal.scheduler.ClusterMembership;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * SAM / Coverity 분석 리포트 수집
+ * - 완료된 SAM, Coverity 스테이지의 리포트 아티팩트를 임시 파일로 스트리밍 다운로드 (본문을 메모리에 모으지 않음)
+ * - 파일을 스트리밍 파서로 읽어 집계 값과 상위 이슈만 stage_result 에 병합
+ * - 아티팩트가 아직 없으면 빌드가 끝날 때까지 다음 주기에 다시 확인, 끝났는데도 없으면 missing
+ * - 리포트 형식이 잘못되면 failed 로 표시하고 재시도하지 않음
+ * - 다운로드 실패는 다음 주기에 재시도하되, 스테이지 완료 후 retry-hours 가 지나면 failed 로 표시
+ * - 아티팩트 조회/다운로드/파싱은 전용 스레드 풀에서 빌드 단위로 실행 (스케줄러 스레드는 대상 선정만)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportIngestionService {
+
+    private final BuildStageResultRepository stageResultRepository;
+    private final BambooClient bambooClient;
+    private final ClusterMembership clusterMembership;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${scheduler.enabled:true}")
+    private boolean schedulerEnabled;
+
+    @Value("${bamboo.reports.coverity.artifact:coverity-report}")
+    private String coverityArtifact;
+
+    @Value("${bamboo.reports.coverity.file:coverity-issues.json}")
+    private String coverityFile;
+
+    @Value("${bamboo.reports.sam.artifact:sam-report}")
+    private String samArtifact;
+
+    @Value("${bamboo.reports.sam.file:sam-report.json}")
+    private String samFile;
+
+    @Value("${bamboo.reports.max-issues:50}")
+    private int maxIssues;
+
+    @Value("${bamboo.reports.download-timeout-seconds:120}")
+    private long downloadTimeoutSeconds;
+
+    @Value("${bamboo.polling-timeout-seconds:10}")
+    private long timeoutSeconds;
+
+    // 스테이지 완료 후 이 시간이 지나도 받지 못하면 failed 로 표시하고 재시도 중단
+    @Value("${bamboo.reports.retry-hours:6}")
+    private long retryHours;
+
+    // 동시에 리포트를 받는 빌드 수 (전용 스레드 수)
+    @Value("${bamboo.reports.concurrency:2}")
+    private int concurrency;
+
+    // 전용 스레드 풀 대기열 크기 (주기당 최대 추가 빌드 수)
+    @Value("${bamboo.reports.queue-size:20}")
+    private int queueSize;
+
+    // 리포트 수집 전용 스레드 풀 (큐에 있거나 처리 중인 빌드는 다시 넣지 않음)
+    private ThreadPoolExecutor ingestExecutor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ingestExecutor = new ThreadPoolExecutor(Math.max(1, concurrency), Math.max(1, concurrency),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+                    Thread thread = new Thread(runnable, "report-ingest-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ingestExecutor.shutdownNow();
+    }
+
+    /**
+     * 수집 대상 빌드 선정 후 전용 스레드 풀에 전달
+     */
+    @Scheduled(fixedDelayString = "${bamboo.reports.interval:30000}")
+    public void ingest() {
+        if (!schedulerEnabled) {
+            return;
+        }
+        int capacity = ingestExecutor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+
+        Map<Build, List<BuildStageResult>> stagesByBuild = stageResultRepository
+                .findReportsToIngest(List.of("SAM", "Coverity")).stream()
+                .filter(stage -> stage.getBuild().getBambooBuildKey() != null)
+                .filter(stage -> clusterMembership.owns(stage.getBuild().getBambooBuildKey()))
+                .filter(stage -> !inFlight.contains(stage.getBuild().getId()))
+                .collect(Collectors.groupingBy(BuildStageResult::getBuild));
+
+        for (Map.Entry<Build, List<BuildStageResult>> entry : stagesByBuild.entrySet()) {
+            if (capacity-- == 0) {
+                break;
+            }
+            Build build = entry.getKey();
+            inFlight.add(build.getId());
+            try {
+                ingestExecutor.execute(() -> ingestBuild(build, entry.getValue()));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(build.getId());
+                break;
+            }
+        }
+    }
+
+    private void ingestBuild(Build build, List<BuildStageResult> stages) {
+        try {
+            List<BambooBuildStatus.Artifact> artifacts;
+            try {
+                artifacts = bambooClient.getBuildArtifacts(build.getBambooBuildKey())
+                        .block(Duration.ofSeconds(timeoutSeconds));
+            } catch (Exception e) {
+                log.debug("Failed to list artifacts of {}: {}", build.getBambooBuildKey(), e.getMessage());
+                stages.forEach(stage -> failIfExpired(build, stage, e));
+                return;
+            }
+            for (BuildStageResult stage : stages) {
+                ingestStage(build, stage, artifacts != null ? artifacts : List.of());
+            }
+        } finally {
+            inFlight.remove(build.getId());
+        }
+    }
+
+    private void ingestStage(Build build, BuildStageResult stage, List<BambooBuildStatus.Artifact> artifacts) {
+        boolean coverity = "Coverity".equals(stage.getStageName());
+        String artifactName = coverity ? coverityArtifact : samArtifact;
+
+        Optional<String> href = artifacts.stream()
+                .filter(artifact -> artifactName.equalsIgnoreCase(artifact.getName()))
+                .filter(artifact -> artifact.getLink() != null && artifact.getLink().getHref() != null)
+                .map(artifact -> artifact.getLink().getHref())
+                .findFirst();
+        if (href.isEmpty()) {
+            if (!"pending".equals(build.getStatus()) && !"running".equals(build.getStatus())) {
+                log.info("No {} report artifact for build {}", stage.getStageName(), build.getId());
+                save(stage.getId(), null, "missing");
+            }
+            return;
+        }
+
+        // 디렉터리 아티팩트면 리포트 파일 경로를 붙임
+        String url = href.get().endsWith("/")
+                ? href.get() + (coverity ? coverityFile : samFile)
+                : href.get();
+        JsonReportParser parser = coverity ? new CoverityReportParser(maxIssues) : new SamReportParser(maxIssues);
+
+        Path file = null;
+        try {
+            file = Files.createTempFile("mint-report-", ".json");
+            bambooClient.downloadArtifact(url, file).block(Duration.ofSeconds(downloadTimeoutSeconds));
+
+            StageReport report;
+            try (InputStream in = Files.newInputStream(file)) {
+                report = parser.parse(in);
+            }
+            save(stage.getId(), report, "ingested");
+            log.debug("Ingested {} report of build {}: {}", stage.getStageName(), build.getId(), report.result().keySet());
+        } catch (JsonProcessingException e) {
+            log.warn("Malformed {} report for build {}: {}", stage.getStageName(), build.getId(), e.getOriginalMessage());
+            save(stage.getId(), null, "failed");
+        } catch (Exception e) {
+            log.debug("Failed to ingest {} report of build {}: {}", stage.getStageName(), build.getId(), e.getMessage());
+            failIfExpired(build, stage, e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.debug("Failed to delete {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 재시도 기한(스테이지 완료 + retry-hours)이 지났으면 failed 로 표시 (JSON 외 오류가 계속되는 경우)
+     * 완료 시각이 기록되지 않았으면 빌드 생성 시각을 기준으로, 그것도 없으면 만료되지 않은 것으로 봄
+     */
+    private void failIfExpired(Build build, BuildStageResult stage, Exception cause) {
+        OffsetDateTime since = stage.getFinishedAt() != null ? stage.getFinishedAt()
+                : build.getFinishedAt() != null ? build.getFinishedAt()
+                : build.getCreatedAt();
+        if (since == null || since.plusHours(retryHours).isAfter(OffsetDateTime.now())) {
+            return;
+        }
+        log.warn("Giving up {} report of build {} after {}h: {}",
+                stage.getStageName(), build.getId(), retryHours, cause.getMessage());
+        save(stage.getId(), null, "failed");
+    }
+
+    private void save(String stageId, StageReport report, String reportStatus) {
+        transactionTemplate.executeWithoutResult(tx -> stageResultRepository.findById(stageId).ifPresent(stage -> {
+            if (report != null) {
+                Map<String, Object> stageResult = stage.getStageResult() != null
+                        ? new HashMap<>(stage.getStageResult())
+                        : new HashMap<>();
+                stageResult.putAll(report.result());
+                stage.setStageResult(stageResult);
+                stage.setErrorCount(report.errorCount());
+                stage.setWarningCount(report.warningCount());
+            }
+            stage.setReportStatus(reportStatus);
+        }));
+    }
+}
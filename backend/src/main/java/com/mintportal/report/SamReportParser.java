@@ -0,0 +1,68 @@
+package com.mintportal.report;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SAM 리포트 파서
+ * 형식: {@code {"score": 95, "issues": [{"severity", "rule", "category", "file", "line", "message"}, ...]}}
+ * - rule 또는 category 에 "leak" 이 들어간 이슈는 memory_leaks 로도 집계
+ *
+ * stage_result: score, issue_count, critical, high, medium, low, memory_leaks, issues
+ */
+public class SamReportParser extends JsonReportParser {
+
+    public SamReportParser(int maxIssues) {
+        super(maxIssues);
+    }
+
+    @Override
+    protected String totalField() {
+        return "issue_count";
+    }
+
+    @Override
+    protected boolean readField(String field, JsonParser parser, Map<String, Object> result) throws IOException {
+        if ("score".equals(field)) {
+            putIfPresent(result, "score", number(parser));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected Map<String, Object> readIssue(JsonParser parser) throws IOException {
+        Map<String, Object> issue = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "severity", "rule", "category", "file", "message" -> putIfPresent(issue, field, text(parser));
+                case "line" -> putIfPresent(issue, "line", number(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return issue;
+    }
+
+    @Override
+    protected void countIssue(Map<String, Object> issue, Map<String, Object> result) {
+        if (isLeak(issue.get("rule")) || isLeak(issue.get("category"))) {
+            result.merge("memory_leaks", 1, (a, b) -> (Integer) a + (Integer) b);
+        }
+    }
+
+    @Override
+    protected void finish(Map<String, Object> result) {
+        result.putIfAbsent("memory_leaks", 0);
+    }
+
+    private static boolean isLeak(Object value) {
+        return value instanceof String text && text.toLowerCase(Locale.ROOT).contains("leak");
+    }
+}
@@ -0,0 +1,11 @@
+package com.mintportal.report;
+
+import java.util.Map;
+
+/**
+ * 분석 리포트 파싱 결과
+ * - result: stage_result 에 병합할 필드 (집계 값 + 상위 이슈)
+ * - errorCount / warningCount: critical+high / medium+low 이슈 수 (스테이지 에러/경고 카운트로 사용)
+ */
+public record StageReport(Map<String, Object> result, int errorCount, int warningCount) {
+}
@@ -0,0 +1,57 @@
+package com.mintportal.repository;
+
+import com.mintportal.entity.BambooOutbox;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BambooOutboxRepository extends JpaRepository<BambooOutbox, String> {
+
+    // 전송 대기 중인 항목 N개 잠금 (다른 노드가 잠근 행은 건너뜀)
+    @Query(value = "SELECT * FROM bamboo_outbox " +
+                   "WHERE status = 'pending' " +
+                   "ORDER BY CASE WHEN priority = 'high' THEN 0 ELSE 1 END, created_at ASC " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<BambooOutbox> lockPending(@Param("limit") int limit);
+
+    // 트리거 결과 반영 / 빌드 취소가 같은 항목을 동시에 바꾸지 않도록 행 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM BambooOutbox o WHERE o.id = :id")
+    Optional<BambooOutbox> lockById(@Param("id") String id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM BambooOutbox o WHERE o.buildId = :buildId")
+    Optional<BambooOutbox> lockByBuildId(@Param("buildId") String buildId);
+
+    // lease 가 만료된 전송 중 항목을 다시 대기 상태로 (at-least-once 재전송)
+    @Modifying
+    @Query("UPDATE BambooOutbox o SET o.status = 'pending', o.claimedBy = NULL, o.leaseExpiresAt = NULL " +
+           "WHERE o.status = 'sending' AND o.leaseExpiresAt < :now")
+    int releaseExpiredLeases(@Param("now") OffsetDateTime now);
+
+    // 보내지 못하고 거절된 전송을 바로 대기 상태로 되돌림 (시도 횟수에서 제외, 이 노드가 점유 중일 때만)
+    @Modifying
+    @Query("UPDATE BambooOutbox o SET o.status = 'pending', o.attempts = o.attempts - 1, " +
+           "o.claimedBy = NULL, o.leaseExpiresAt = NULL " +
+           "WHERE o.id = :id AND o.status = 'sending' AND o.claimedBy = :nodeId")
+    int releaseUnsent(@Param("id") String id, @Param("nodeId") String nodeId);
+
+    // 처리가 끝난 항목 정리 (보관 기간 경과분)
+    @Modifying
+    @Query("DELETE FROM BambooOutbox o WHERE o.status IN ('sent', 'failed', 'cancelled') AND o.createdAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") OffsetDateTime cutoff);
+
+    @Query("SELECT COUNT(o) FROM BambooOutbox o WHERE o.status = 'pending'")
+    long countPending();
+}
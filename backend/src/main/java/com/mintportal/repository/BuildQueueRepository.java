@@ -1,26 +1,33 @@
 package com.mintportal.repository;
 
 import com.mintportal.entity.BuildQueue;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BuildQueueRepository extends JpaRepository<BuildQueue, String> {
 
-    // 대기 중인 빌드 조회 (우선순위 높은 순, 오래된 순)
+    // 대기 중인 빌드 조회 (우선순위 높은 순, 오래된 순, 재시도 시각이 지난 것만)
     @Query("SELECT q FROM BuildQueue q " +
            "WHERE q.queueStatus = 'waiting' " +
+           "AND (q.nextAttemptAt IS NULL OR q.nextAttemptAt <= CURRENT_TIMESTAMP) " +
            "ORDER BY q.priority DESC, q.queuedAt ASC")
     List<BuildQueue> findWaitingBuilds();
 
     // 다음 처리할 빌드 조회
     @Query("SELECT q FROM BuildQueue q " +
            "WHERE q.queueStatus = 'waiting' " +
+           "AND (q.nextAttemptAt IS NULL OR q.nextAttemptAt <= CURRENT_TIMESTAMP) " +
            "ORDER BY q.priority DESC, q.queuedAt ASC " +
            "LIMIT 1")
     Optional<BuildQueue> findNextBuild();
@@ -33,25 +40,99 @@ public interface BuildQueueRepository extends JpaRepository<BuildQueue, String>
     List<BuildQueue> findByLayerIdAndQueueStatusOrderByPriorityDescQueuedAtAsc(
             String layerId, String queueStatus);
 
+    // 동일 파라미터로 대기 중인 신규 아이템 조회 (병합 대상, 행 잠금)
+    // 재시도 대기 중(retry_count > 0)인 아이템은 제외: unique 인덱스 uq_build_queue_waiting_hash 와 같은 조건
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM BuildQueue q WHERE q.layer.id = :layerId AND q.paramsHash = :paramsHash " +
+           "AND q.queueStatus = 'waiting' AND q.retryCount = 0")
+    Optional<BuildQueue> findCoalesceTarget(@Param("layerId") String layerId,
+                                            @Param("paramsHash") String paramsHash);
+
+    // 여러 파라미터 해시로 대기 중인 신규 아이템 일괄 조회 (일괄 병합 대상, 행 잠금)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM BuildQueue q WHERE q.paramsHash IN :paramsHashes " +
+           "AND q.queueStatus = 'waiting' AND q.retryCount = 0")
+    List<BuildQueue> findCoalesceTargets(@Param("paramsHashes") Collection<String> paramsHashes);
+
     // 처리 중인 빌드 개수
     @Query("SELECT COUNT(q) FROM BuildQueue q WHERE q.queueStatus = 'processing'")
     long countProcessingBuilds();
 
+    // 점유되었지만 아직 Build 가 생성되지 않은 아이템 개수
+    @Query("SELECT COUNT(q) FROM BuildQueue q WHERE q.queueStatus = 'processing' " +
+           "AND NOT EXISTS (SELECT r FROM BuildRequest r WHERE r.queue = q AND r.requestStatus = 'sent')")
+    long countClaimedUnprepared();
+
     // 대기 중인 빌드 개수
     @Query("SELECT COUNT(q) FROM BuildQueue q WHERE q.queueStatus = 'waiting'")
     long countWaitingBuilds();
 
+    // 대기 중인 빌드 수 (taskGroupId, projectId, layerId, count)
+    @Query("SELECT q.project.taskGroup.id, q.project.id, q.layer.id, COUNT(q) " +
+           "FROM BuildQueue q WHERE q.queueStatus = 'waiting' " +
+           "GROUP BY q.project.taskGroup.id, q.project.id, q.layer.id")
+    List<Object[]> countWaitingBuildsByTenant();
+
     // 상태별 빌드 큐 조회
     List<BuildQueue> findByQueueStatusOrderByPriorityDescQueuedAtAsc(String queueStatus);
 
     // 사용자별 대기 중인 빌드 조회
     List<BuildQueue> findByRequesterIdAndQueueStatusIn(String requesterId, List<String> statuses);
 
-    // 재시도 가능한 실패 빌드 조회
+    // 재시도 가능한 실패 빌드 조회 (재시도 시각이 지난 것만)
     @Query("SELECT q FROM BuildQueue q " +
            "WHERE q.queueStatus = 'waiting' " +
            "AND q.retryCount > 0 " +
            "AND q.retryCount < q.maxRetries " +
+           "AND (q.nextAttemptAt IS NULL OR q.nextAttemptAt <= CURRENT_TIMESTAMP) " +
            "ORDER BY q.priority DESC, q.queuedAt ASC")
     List<BuildQueue> findRetryableBuilds();
+
+    // 신규 대기 아이템 후보 창 (잠그지 않음, fair-share 선택용)
+    @Query(value = "SELECT * FROM build_queue " +
+                   "WHERE queue_status = 'waiting' " +
+                   "AND retry_count = 0 " +
+                   "ORDER BY priority DESC, queued_at ASC " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<BuildQueue> findNextWaitingBuilds(@Param("limit") int limit);
+
+    // 선택한 아이템만 잠금 (그 사이 다른 노드가 잠그거나 점유한 행은 제외)
+    @Query(value = "SELECT * FROM build_queue " +
+                   "WHERE id IN (:ids) " +
+                   "AND queue_status = 'waiting' " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<BuildQueue> lockWaitingByIds(@Param("ids") Collection<String> ids);
+
+    // 재시도 시각이 지난 재시도 아이템 N개 잠금 (재시도 레인)
+    @Query(value = "SELECT * FROM build_queue " +
+                   "WHERE queue_status = 'waiting' " +
+                   "AND retry_count > 0 " +
+                   "AND (next_attempt_at IS NULL OR next_attempt_at <= now()) " +
+                   "ORDER BY priority DESC, next_attempt_at ASC " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<BuildQueue> lockDueRetries(@Param("limit") int limit);
+
+    // 노드가 점유 중인 아이템의 lease 연장 (heartbeat)
+    @Modifying
+    @Query("UPDATE BuildQueue q SET q.leaseExpiresAt = :leaseUntil " +
+           "WHERE q.claimedBy = :nodeId AND q.queueStatus = 'processing'")
+    int extendLeases(@Param("nodeId") String nodeId, @Param("leaseUntil") OffsetDateTime leaseUntil);
+
+    // lease가 만료된 아이템을 대기 상태로 회수 (죽은 노드의 점유 해제)
+    // outbox 에 전송 대기/전송 중 항목이 있는 아이템은 준비가 끝난 것이므로 재전송은 outbox lease 가 담당
+    // 같은 요청의 신규 대기 아이템이 이미 있으면 unique 인덱스 위반이 되므로 그 아이템이 빠질 때까지 보류
+    @Modifying
+    @Query("UPDATE BuildQueue q SET q.queueStatus = 'waiting', q.claimedBy = NULL, " +
+           "q.leaseExpiresAt = NULL, q.lastError = 'Lease expired' " +
+           "WHERE q.queueStatus = 'processing' AND q.leaseExpiresAt < :now " +
+           "AND NOT EXISTS (SELECT o.id FROM BambooOutbox o " +
+           "WHERE o.queueId = q.id AND o.status IN ('pending', 'sending')) " +
+           "AND (q.retryCount > 0 OR q.paramsHash IS NULL OR NOT EXISTS (" +
+           "SELECT w.id FROM BuildQueue w WHERE w.queueStatus = 'waiting' AND w.retryCount = 0 " +
+           "AND w.layer = q.layer AND w.paramsHash = q.paramsHash))")
+    int releaseExpiredLeases(@Param("now") OffsetDateTime now);
 }
@@ -26,9 +26,22 @@ public interface BuildRepository extends JpaRepository<Build, String> {
     // Bamboo 빌드 키로 조회
     Optional<Build> findByBambooBuildKey(String bambooBuildKey);
 
-    @Query("SELECT b FROM Build b WHERE b.status IN ('pending', 'running') ORDER BY b.startedAt ASC")
+    // Layer 함께 로드 (폴링 시 release 여부로 Bamboo 호출 우선순위 결정)
+    @Query("SELECT b FROM Build b JOIN FETCH b.layer WHERE b.status IN ('pending', 'running') ORDER BY b.startedAt ASC")
     List<Build> findActiveBuilds();
 
+    @Query("SELECT b FROM Build b JOIN FETCH b.layer WHERE b.bambooBuildKey = :bambooBuildKey")
+    Optional<Build> findWithLayerByBambooBuildKey(@Param("bambooBuildKey") String bambooBuildKey);
+
+    @Query("SELECT COUNT(b) FROM Build b WHERE b.status IN ('pending', 'running')")
+    long countActiveBuilds();
+
+    // 진행 중인 빌드 수 (taskGroupId, projectId, layerId, count) - fair-share 사용량 계산용
+    @Query("SELECT b.project.taskGroup.id, b.project.id, b.layer.id, COUNT(b) " +
+           "FROM Build b WHERE b.status IN ('pending', 'running') " +
+           "GROUP BY b.project.taskGroup.id, b.project.id, b.layer.id")
+    List<Object[]> countActiveBuildsByTenant();
+
     @Query("SELECT b FROM Build b WHERE " +
            "(:projectId IS NULL OR b.project.id = :projectId) AND " +
            "(:layerId IS NULL OR b.layer.id = :layerId) AND " +
@@ -2,10 +2,13 @@ package com.mintportal.repository;
 
 import com.mintportal.entity.BuildStageResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +18,54 @@ public interface BuildStageResultRepository extends JpaRepository<BuildStageResu
     // 빌드별 스테이지 결과 조회 (순서대로)
     List<BuildStageResult> findByBuildIdOrderByStageOrder(String buildId);
 
+    // 여러 빌드의 스테이지 결과 일괄 조회 (폴링 사이클 반영용)
+    List<BuildStageResult> findByBuildIdIn(Collection<String> buildIds);
+
+    // 로그 파싱이 끝나지 않은 스테이지 (로그 URL 이 있는 것만, Bamboo 키 확인용으로 빌드 함께 로드)
+    @Query("SELECT s FROM BuildStageResult s JOIN FETCH s.build b " +
+           "WHERE s.stageName = :stageName " +
+           "AND s.logUrl IS NOT NULL " +
+           "AND (s.logParseComplete IS NULL OR s.logParseComplete = false) " +
+           "AND (s.finishedAt IS NULL OR s.finishedAt >= :since)")
+    List<BuildStageResult> findLogsToParse(@Param("stageName") String stageName,
+                                           @Param("since") OffsetDateTime since);
+
+    // 로그 파싱 진행 상태만 갱신 (상태 폴링이 쓰는 status 등은 건드리지 않고, stage_result 는 키 단위 병합)
+    @Modifying
+    @Query(value = "UPDATE build_stage_results SET error_count = :errorCount, warning_count = :warningCount, " +
+                   "log_preview = :preview, log_parsed_offset = :offset, log_parse_complete = :complete, " +
+                   "stage_result = COALESCE(stage_result, CAST('{}' AS jsonb)) || CAST(:diagnostics AS jsonb) " +
+                   "WHERE id = :id",
+           nativeQuery = true)
+    int updateLogParseProgress(@Param("id") String id,
+                               @Param("errorCount") int errorCount,
+                               @Param("warningCount") int warningCount,
+                               @Param("preview") String preview,
+                               @Param("offset") long offset,
+                               @Param("complete") boolean complete,
+                               @Param("diagnostics") String diagnostics);
+
+    // 리포트를 아직 수집하지 않은 완료 스테이지 (SAM, Coverity)
+    @Query("SELECT s FROM BuildStageResult s JOIN FETCH s.build b " +
+           "WHERE s.stageName IN :stageNames " +
+           "AND s.status IN ('success', 'failed') " +
+           "AND s.reportStatus IS NULL")
+    List<BuildStageResult> findReportsToIngest(@Param("stageNames") Collection<String> stageNames);
+
+    // 최근 완료된 스테이지 중 로그 URL 이 있고 아직 아카이브 처리하지 않은 것 (로그 아카이브 대상)
+    @Query("SELECT s FROM BuildStageResult s JOIN FETCH s.build b " +
+           "WHERE s.logUrl IS NOT NULL " +
+           "AND s.status IN ('success', 'failed') " +
+           "AND s.finishedAt >= :since " +
+           "AND s.archiveStatus IS NULL " +
+           "ORDER BY s.finishedAt ASC")
+    List<BuildStageResult> findFinishedLogsSince(@Param("since") OffsetDateTime since);
+
+    // 로그 아카이브 상태만 갱신 (상태 폴링 / 로그 파싱이 쓰는 컬럼은 건드리지 않음)
+    @Modifying
+    @Query("UPDATE BuildStageResult s SET s.archiveStatus = :status WHERE s.id IN :ids")
+    int updateArchiveStatus(@Param("ids") Collection<String> ids, @Param("status") String status);
+
     // 빌드 및 스테이지 이름으로 조회
     Optional<BuildStageResult> findByBuildIdAndStageName(String buildId, String stageName);
 
@@ -0,0 +1,31 @@
+package com.mintportal.repository;
+
+import com.mintportal.entity.SchedulerMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface SchedulerMemberRepository extends JpaRepository<SchedulerMember, String> {
+
+    // 멤버 등록 또는 heartbeat 갱신
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_members (node_id, started_at, last_heartbeat_at) " +
+                   "VALUES (:nodeId, :now, :now) " +
+                   "ON CONFLICT (node_id) DO UPDATE SET last_heartbeat_at = EXCLUDED.last_heartbeat_at",
+           nativeQuery = true)
+    int upsertHeartbeat(@Param("nodeId") String nodeId, @Param("now") OffsetDateTime now);
+
+    @Query("SELECT m.nodeId FROM SchedulerMember m WHERE m.lastHeartbeatAt >= :since ORDER BY m.nodeId")
+    List<String> findLiveNodeIds(@Param("since") OffsetDateTime since);
+
+    // heartbeat 가 끊긴 멤버 정리
+    @Modifying
+    @Query("DELETE FROM SchedulerMember m WHERE m.lastHeartbeatAt < :before")
+    int deleteStale(@Param("before") OffsetDateTime before);
+}
@@ -0,0 +1,25 @@
+package com.mintportal.scheduler;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * AIMD 동시 빌드 수 제어 설정
+ * - [min-limit, max-limit] 범위에서 increase-step 만큼 증가, decrease-factor 배로 감소
+ * - 감소 기준: Bamboo 큐 대기 시간, 조정 주기 내 평균 트리거 지연
+ */
+@Configuration
+@ConfigurationProperties(prefix = "scheduler.adaptive")
+@Getter
+@Setter
+public class AdaptiveConcurrencyConfig {
+    private boolean enabled = true;
+    private int minLimit = 2;
+    private int maxLimit = 20;
+    private int increaseStep = 1;
+    private double decreaseFactor = 0.7;
+    private long targetQueueWaitSeconds = 120;
+    private long targetTriggerLatencyMillis = 3000;
+}
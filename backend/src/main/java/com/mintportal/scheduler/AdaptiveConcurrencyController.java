@@ -0,0 +1,131 @@
+package com.mintportal.scheduler;
+
+import com.mintportal.bamboo.BambooCallStats;
+import com.mintportal.repository.BuildQueueRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AIMD 기반 동시 빌드 수 제어
+ * - Bamboo 큐 대기 시간(에이전트 포화) 또는 주기 내 평균 트리거 지연이 목표치를 넘으면 곱셈 감소
+ * - 혼잡 신호가 없고 대기 빌드가 한도를 채우고 있으면 덧셈 증가
+ * - 한도는 [min-limit, max-limit] 범위로 제한, adaptive 비활성 시 max-concurrent-builds 고정
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdaptiveConcurrencyController {
+
+    private final AdaptiveConcurrencyConfig config;
+    private final BambooCallStats callStats;
+    private final BuildQueueRepository buildQueueRepository;
+
+    @Value("${scheduler.max-concurrent-builds:5}")
+    private int staticLimit;
+
+    private volatile int currentLimit;
+    private volatile String lastReason = "initial";
+    private volatile OffsetDateTime lastAdjustedAt;
+
+    // 조정 주기 동안 관측된 최대 Bamboo 큐 대기 시간 (초)
+    private volatile long maxQueueWaitSeconds;
+    private volatile boolean saturated;
+
+    // 마지막 조정 주기의 트리거 지연 (판단에 사용한 값)
+    private volatile BambooCallStats.LatencyWindow lastLatency = new BambooCallStats.LatencyWindow(0, 0);
+
+    @PostConstruct
+    void init() {
+        currentLimit = clamp(staticLimit);
+    }
+
+    /**
+     * 현재 적용 중인 동시 빌드 한도
+     */
+    public int currentLimit() {
+        return config.isEnabled() ? currentLimit : staticLimit;
+    }
+
+    /**
+     * 폴링 중 Bamboo 에서 아직 Queued 상태인 빌드의 대기 시간 기록
+     */
+    public void recordQueueWait(long waitSeconds) {
+        if (waitSeconds > maxQueueWaitSeconds) {
+            maxQueueWaitSeconds = waitSeconds;
+        }
+    }
+
+    /**
+     * 디스패치 시 한도가 가득 찼는지 기록 (증가 판단용)
+     */
+    public void recordSaturation(boolean limitReached) {
+        if (limitReached) {
+            saturated = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.adaptive.adjust-interval:30000}")
+    public void adjust() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        long queueWait = maxQueueWaitSeconds;
+        // 이번 주기에 관측된 지연시간만 사용 (트리거가 없던 주기에 오래된 값으로 계속 감소하지 않도록)
+        BambooCallStats.LatencyWindow latency = callStats.drainTriggerWindow();
+        lastLatency = latency;
+        boolean wasSaturated = saturated;
+        maxQueueWaitSeconds = 0;
+        saturated = false;
+
+        int previous = currentLimit;
+        if (queueWait > config.getTargetQueueWaitSeconds()) {
+            currentLimit = clamp((int) Math.floor(previous * config.getDecreaseFactor()));
+            lastReason = "decrease: bamboo queue wait " + queueWait + "s > " + config.getTargetQueueWaitSeconds() + "s";
+        } else if (latency.samples() > 0 && latency.meanMillis() > config.getTargetTriggerLatencyMillis()) {
+            currentLimit = clamp((int) Math.floor(previous * config.getDecreaseFactor()));
+            lastReason = "decrease: trigger latency " + Math.round(latency.meanMillis()) + "ms > "
+                    + config.getTargetTriggerLatencyMillis() + "ms (" + latency.samples() + " calls)";
+        } else if (wasSaturated && buildQueueRepository.countWaitingBuilds() > 0) {
+            currentLimit = clamp(previous + config.getIncreaseStep());
+            lastReason = "increase: limit saturated with waiting builds, no congestion";
+        } else {
+            return;
+        }
+
+        if (currentLimit != previous) {
+            lastAdjustedAt = OffsetDateTime.now();
+            log.info("Concurrency limit {} -> {} ({})", previous, currentLimit, lastReason);
+        }
+    }
+
+    private int clamp(int limit) {
+        return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), limit));
+    }
+
+    /**
+     * 현재 한도와 조정 사유 (getQueueStatus 용)
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("adaptive", config.isEnabled());
+        status.put("limit", currentLimit());
+        status.put("minLimit", config.getMinLimit());
+        status.put("maxLimit", config.getMaxLimit());
+        status.put("reason", config.isEnabled() ? lastReason : "static");
+        status.put("adjustedAt", lastAdjustedAt);
+        // 마지막 주기의 평균 트리거 지연과 표본 수 (조정 판단 기준, 호출이 없던 주기는 0)
+        BambooCallStats.LatencyWindow latency = lastLatency;
+        status.put("triggerLatencyMs", Math.round(latency.meanMillis()));
+        status.put("triggerLatencySamples", latency.samples());
+        return status;
+    }
+}
@@ -0,0 +1,266 @@
+package com.mintportal.scheduler;
+
+import com.mintportal.bamboo.BambooBuildResult;
+import com.mintportal.bamboo.BambooClient;
+import com.mintportal.bamboo.BambooOperation;
+import com.mintportal.bamboo.BambooPlanCatalog;
+import com.mintportal.bamboo.BambooPriority;
+import com.mintportal.bamboo.BambooRateLimiter;
+import com.mintportal.bamboo.BambooTransport;
+import com.mintportal.entity.BambooOutbox;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bamboo outbox relay
+ * - 커밋된 outbox 항목을 배치로 점유해 동시성 제한 하에 Bamboo 로 전송 (at-least-once)
+ * - 응답을 받지 못한 트리거는 재전송 전에 idempotency 변수로 Bamboo 최근 결과를 조회해 중복 트리거 방지
+ * - 전송 결과는 항목별 트랜잭션으로 BuildRequest / Build / 큐에 반영
+ * - 비동기로 실행되어 스케줄러 스레드를 막지 않음, 한 노드에서 동시에 하나의 drain 만 실행
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BambooOutboxRelay {
+
+    // Bamboo 는 이 변수로 중복을 거르지 않음 - 응답을 못 받은 트리거를 최근 결과에서 찾아 확인하는 용도
+    public static final String IDEMPOTENCY_VARIABLE = "MINT_IDEMPOTENCY_KEY";
+
+    private final BambooOutboxStore outboxStore;
+    private final QueueItemProcessor itemProcessor;
+    private final BambooClient bambooClient;
+    private final BambooTransport bambooTransport;
+    private final BambooPlanCatalog planCatalog;
+    private final SchedulerNode schedulerNode;
+
+    @Value("${scheduler.enabled:true}")
+    private boolean schedulerEnabled;
+
+    @Value("${scheduler.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${scheduler.outbox.concurrency:4}")
+    private int concurrency;
+
+    @Value("${scheduler.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${scheduler.trigger-timeout-seconds:30}")
+    private long triggerTimeoutSeconds;
+
+    @Value("${scheduler.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${scheduler.outbox.reconcile-results:25}")
+    private int reconcileResults;
+
+    @Value("${scheduler.outbox.retention-hours:72}")
+    private long retentionHours;
+
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    /**
+     * 주기적 drain (디스패치 직후에는 requestDrain 으로 즉시 실행)
+     */
+    @Scheduled(fixedDelayString = "${scheduler.outbox.poll-interval:5000}")
+    public void requestDrain() {
+        if (!schedulerEnabled) {
+            return;
+        }
+        // circuit breaker 가 열려 있는 동안은 점유하지 않음 (항목은 pending 으로 남아 닫힌 뒤 전송)
+        if (bambooTransport.isOpen(BambooOperation.TRIGGER) || !draining.compareAndSet(false, true)) {
+            return;
+        }
+
+        // 이번 drain 에서 거절되어 반환한 항목 수 (있으면 바로 이어서 drain 하지 않음)
+        AtomicInteger released = new AtomicInteger();
+        Mono.fromCallable(() -> outboxStore.claimPending(schedulerNode.getNodeId(), batchSize, leaseSeconds))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(batch -> Flux.fromIterable(batch)
+                        .flatMap(entry -> send(entry, released), Math.max(1, concurrency))
+                        .then(Mono.just(batch.size())))
+                .doFinally(signal -> draining.set(false))
+                .subscribe(
+                        sent -> {
+                            if (sent > 0) {
+                                log.debug("Outbox relay sent {} Bamboo triggers", sent);
+                            }
+                            // 배치가 가득 찼으면 남은 항목이 있을 수 있으므로 이어서 drain
+                            // (거절된 항목이 있으면 혼잡 중이므로 다음 주기까지 대기)
+                            if (sent >= batchSize && released.get() == 0) {
+                                requestDrain();
+                            }
+                        },
+                        error -> log.error("Outbox relay drain failed: {}", error.getMessage(), error)
+                );
+    }
+
+    private Mono<Void> send(BambooOutbox entry, AtomicInteger released) {
+        BambooPriority priority = "high".equals(entry.getPriority()) ? BambooPriority.HIGH : BambooPriority.NORMAL;
+        return deliver(entry, priority)
+                .switchIfEmpty(Mono.error(new IllegalStateException("Empty trigger response from Bamboo")))
+                .<Runnable>map(result -> () -> recordTriggered(entry, result))
+                // 보내지 않고 거절된 호출(circuit, bulkhead, rate limit 대기 초과)은 시도 횟수에서 빼고 바로 대기 상태로
+                .onErrorResume(BambooOutboxRelay::isRejected, error -> {
+                    log.debug("Outbox entry {} not sent, releasing: {}", entry.getId(), error.getMessage());
+                    released.incrementAndGet();
+                    return Mono.<Runnable>just(() -> outboxStore.releaseUnsent(entry.getId(), schedulerNode.getNodeId()));
+                })
+                // 없거나 비활성인 플랜은 재시도해도 같으므로 큐 아이템까지 바로 실패 처리
+                .onErrorResume(PlanNotTriggerableException.class, error -> Mono.<Runnable>just(
+                        () -> itemProcessor.markTriggerFailed(entry.getId(), error.getMessage(), false)))
+                // 이전 시도 결과를 확인하지 못한 호출은 실패로 기록하지 않음 (lease 만료 후 재확인)
+                .onErrorResume(UnconfirmedTriggerException.class, error -> {
+                    log.debug("Outbox entry {} not sent: {}", entry.getId(), error.getMessage());
+                    return Mono.empty();
+                })
+                // 응답 타임아웃은 Bamboo 가 이미 큐잉했을 수 있으므로 실패 처리 전에 결과를 조회
+                .onErrorResume(BambooOutboxRelay::isTimeout, error -> findTriggered(entry, priority)
+                        .<Runnable>map(result -> () -> recordTriggered(entry, result))
+                        .onErrorResume(lookupError -> Mono.empty())
+                        .switchIfEmpty(Mono.fromRunnable(() -> log.warn(
+                                "Trigger of outbox entry {} timed out and is not visible in Bamboo yet, " +
+                                "re-checking after lease expiry", entry.getId()))))
+                .onErrorResume(error -> Mono.<Runnable>just(
+                        () -> itemProcessor.markTriggerFailed(entry.getId(), error.getMessage())))
+                // 결과 반영은 JPA 작업이므로 Netty 스레드가 아닌 worker 에서 실행
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(Runnable::run)
+                .onErrorResume(error -> {
+                    // 반영 실패 시 lease 만료 후 재전송됨
+                    log.error("Failed to record outbox result {}: {}", entry.getId(), error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * 트리거 결과 반영, 그 사이 빌드가 취소됐으면 방금 큐잉된 Bamboo 빌드를 중지
+     */
+    private void recordTriggered(BambooOutbox entry, BambooBuildResult result) {
+        if (!itemProcessor.markTriggered(entry.getId(), result)) {
+            bambooClient.stopBuild(result.getBuildResultKey())
+                    .subscribe(null, error -> log.warn("Failed to stop cancelled build {}: {}",
+                            result.getBuildResultKey(), error.getMessage()));
+        }
+    }
+
+    /**
+     * 첫 시도는 바로 트리거, 재전송(lease 만료 후 재점유)은 이전 시도가 Bamboo 에 큐잉됐는지 먼저 확인
+     * 조회에 실패하면 트리거하지 않고 다음 lease 에서 다시 확인
+     */
+    private Mono<BambooBuildResult> deliver(BambooOutbox entry, BambooPriority priority) {
+        if (entry.getAttempts() <= 1) {
+            return trigger(entry, priority);
+        }
+        return findTriggered(entry, priority)
+                .onErrorMap(error -> new UnconfirmedTriggerException(
+                        "Could not check earlier attempts: " + error.getMessage()))
+                .doOnNext(result -> log.info("Outbox entry {} was already queued in Bamboo as {}",
+                        entry.getId(), result.getBuildResultKey()))
+                .switchIfEmpty(Mono.defer(() -> entry.getAttempts() > maxAttempts
+                        ? Mono.error(new IllegalStateException(
+                                "Bamboo trigger not confirmed after " + maxAttempts + " attempts"))
+                        : trigger(entry, priority)));
+    }
+
+    private Mono<BambooBuildResult> trigger(BambooOutbox entry, BambooPriority priority) {
+        // enqueue 때 UNKNOWN 으로 통과한 키도 그 사이 끝난 카탈로그 조회 결과로 다시 확인 (여전히 UNKNOWN 이면 전송)
+        BambooPlanCatalog.Validation validation = planCatalog.validate(entry.getPlanKey());
+        if (validation == BambooPlanCatalog.Validation.MISSING || validation == BambooPlanCatalog.Validation.DISABLED) {
+            return Mono.error(new PlanNotTriggerableException(validation == BambooPlanCatalog.Validation.MISSING
+                    ? "Unknown Bamboo plan: " + entry.getPlanKey()
+                    : "Bamboo plan is disabled: " + entry.getPlanKey()));
+        }
+        Map<String, String> variables = new HashMap<>(entry.getParams());
+        variables.put(IDEMPOTENCY_VARIABLE, entry.getIdempotencyKey());
+        // 타임아웃은 rate limit 대기와 토큰을 받은 뒤의 요청에 각각 적용 (대기 시간이 요청 타임아웃을 잡아먹지 않도록)
+        return bambooClient.triggerBuild(entry.getPlanKey(), variables, priority,
+                Duration.ofSeconds(triggerTimeoutSeconds));
+    }
+
+    private Mono<BambooBuildResult> findTriggered(BambooOutbox entry, BambooPriority priority) {
+        return bambooClient.findResultByVariable(entry.getPlanKey(), IDEMPOTENCY_VARIABLE,
+                entry.getIdempotencyKey(), reconcileResults, priority);
+    }
+
+    // Bamboo 로 보내기 전에 거절된 경우 (요청이 전송되지 않았음이 확실)
+    private static boolean isRejected(Throwable error) {
+        return error instanceof CallNotPermittedException
+                || error instanceof BulkheadFullException
+                || error instanceof BambooRateLimiter.WaitTimeoutException;
+    }
+
+    // 요청은 전송됐지만 응답을 받지 못한 경우 (호출자 타임아웃, Netty response timeout)
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException
+                    || cause instanceof io.netty.handler.timeout.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 이전 시도의 결과를 확인할 수 없어 이번 lease 에서는 전송하지 않음
+     */
+    private static class UnconfirmedTriggerException extends RuntimeException {
+        UnconfirmedTriggerException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 카탈로그상 없거나 비활성인 플랜이라 트리거하지 않음
+     */
+    private static class PlanNotTriggerableException extends RuntimeException {
+        PlanNotTriggerableException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 만료된 lease 회수 (전송 중 크래시한 노드의 항목 재전송)
+     */
+    @Scheduled(fixedDelayString = "#{${scheduler.outbox.lease-seconds:120} * 1000 / 3}")
+    public void releaseExpired() {
+        if (!schedulerEnabled) {
+            return;
+        }
+        int released = outboxStore.releaseExpired();
+        if (released > 0) {
+            log.warn("Released {} outbox entries with expired leases", released);
+        }
+    }
+
+    /**
+     * 전송 완료/실패 항목 정리 (보관 기간 경과분)
+     */
+    @Scheduled(fixedDelayString = "${scheduler.outbox.purge-interval:3600000}")
+    public void purgeFinished() {
+        if (!schedulerEnabled) {
+            return;
+        }
+        int purged = outboxStore.purgeFinished(retentionHours);
+        if (purged > 0) {
+            log.info("Purged {} finished outbox entries older than {}h", purged, retentionHours);
+        }
+    }
+}
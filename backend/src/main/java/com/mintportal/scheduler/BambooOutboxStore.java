@@ -0,0 +1,52 @@
+package com.mintportal.scheduler;
+
+import com.mintportal.entity.BambooOutbox;
+import com.mintportal.repository.BambooOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Bamboo outbox 점유 / lease 회수 (relay 용 짧은 트랜잭션)
+ */
+@Component
+@RequiredArgsConstructor
+public class BambooOutboxStore {
+
+    private final BambooOutboxRepository outboxRepository;
+
+    /**
+     * 전송 대기 항목을 최대 limit 개 점유하고 즉시 커밋
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<BambooOutbox> claimPending(String nodeId, int limit, long leaseSeconds) {
+        List<BambooOutbox> entries = outboxRepository.lockPending(limit);
+        OffsetDateTime leaseUntil = OffsetDateTime.now().plusSeconds(leaseSeconds);
+        for (BambooOutbox entry : entries) {
+            entry.startSending(nodeId, leaseUntil);
+        }
+        return outboxRepository.saveAll(entries);
+    }
+
+    @Transactional
+    public int releaseExpired() {
+        return outboxRepository.releaseExpiredLeases(OffsetDateTime.now());
+    }
+
+    /**
+     * 전송하지 않고 거절된 항목(circuit, bulkhead, rate limit)을 lease 만료를 기다리지 않고 반환
+     */
+    @Transactional
+    public boolean releaseUnsent(String id, String nodeId) {
+        return outboxRepository.releaseUnsent(id, nodeId) > 0;
+    }
+
+    @Transactional
+    public int purgeFinished(long retentionHours) {
+        return outboxRepository.deleteFinishedBefore(OffsetDateTime.now().minusHours(retentionHours));
+    }
+}
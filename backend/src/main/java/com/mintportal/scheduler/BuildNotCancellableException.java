@@ -0,0 +1,11 @@
+package com.mintportal.scheduler;
+
+/**
+ * 이미 종료되었거나 대기 상태가 아니어서 취소할 수 없는 빌드/큐 아이템 (409)
+ */
+public class BuildNotCancellableException extends RuntimeException {
+
+    public BuildNotCancellableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,83 @@
+package com.mintportal.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 빌드 번호 / 회차 발급기
+ * - build_counters 테이블의 프로젝트별(buildNumber), 레이어별(round) 카운터를 한 번의 쿼리로 증가
+ * - 짧은 별도 트랜잭션에서 커밋하므로 디스패치 트랜잭션 동안 카운터 행을 잠그지 않음
+ * - 시퀀스와 마찬가지로 단조 증가만 보장 (디스패치 롤백 시 번호가 건너뛸 수 있음)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BuildNumberAllocator {
+
+    private static final String ALLOCATE_SQL =
+            "WITH p AS (UPDATE build_counters SET value = value + 1 " +
+            "           WHERE scope = 'project' AND scope_id = ? RETURNING value), " +
+            "     l AS (UPDATE build_counters SET value = value + 1 " +
+            "           WHERE scope = 'layer' AND scope_id = ? RETURNING value) " +
+            "SELECT (SELECT value FROM p) AS build_number, (SELECT value FROM l) AS round";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE build_counters SET value = value + 1 " +
+            "WHERE scope = ? AND scope_id = ? RETURNING value";
+
+    // 카운터가 없을 때 기존 builds 의 최대값으로 초기화 (프로젝트/레이어당 최초 1회)
+    private static final String SEED_PROJECT_SQL =
+            "INSERT INTO build_counters (scope, scope_id, value) " +
+            "SELECT 'project', ?, COALESCE(MAX(build_number), 0) FROM builds WHERE project_id = ? " +
+            "ON CONFLICT (scope, scope_id) DO NOTHING";
+
+    private static final String SEED_LAYER_SQL =
+            "INSERT INTO build_counters (scope, scope_id, value) " +
+            "SELECT 'layer', ?, COALESCE(MAX(round), 0) FROM builds WHERE layer_id = ? " +
+            "ON CONFLICT (scope, scope_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record BuildNumbers(int buildNumber, int round) {
+    }
+
+    /**
+     * 프로젝트 빌드 번호와 레이어 회차를 원자적으로 발급
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public BuildNumbers allocate(String projectId, String layerId) {
+        Integer[] values = jdbcTemplate.queryForObject(ALLOCATE_SQL, (rs, rowNum) -> new Integer[]{
+                (Integer) rs.getObject("build_number"),
+                (Integer) rs.getObject("round")
+        }, projectId, layerId);
+
+        Integer buildNumber = values[0];
+        Integer round = values[1];
+
+        // 최초 발급: 없는 카운터만 기존 builds 최대값으로 초기화 후 증가
+        if (buildNumber == null) {
+            log.info("Seeding project build counter for {}", projectId);
+            jdbcTemplate.update(SEED_PROJECT_SQL, projectId, projectId);
+            buildNumber = increment("project", projectId);
+        }
+        if (round == null) {
+            log.info("Seeding layer round counter for {}", layerId);
+            jdbcTemplate.update(SEED_LAYER_SQL, layerId, layerId);
+            round = increment("layer", layerId);
+        }
+
+        return new BuildNumbers(buildNumber, round);
+    }
+
+    private int increment(String scope, String scopeId) {
+        Integer value = jdbcTemplate.queryForObject(INCREMENT_SQL, Integer.class, scope, scopeId);
+        if (value == null) {
+            throw new IllegalStateException("Build counter missing for " + scope + " " + scopeId);
+        }
+        return value;
+    }
+}
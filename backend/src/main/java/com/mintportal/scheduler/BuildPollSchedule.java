@@ -0,0 +1,209 @@
+package com.mintportal.scheduler;
+
+import com.mintportal.bamboo.BambooBuildStatus;
+import com.mintportal.entity.Build;
+import com.mintportal.entity.BuildStageResult;
+import com.mintportal.repository.BuildStageResultRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 빌드별 폴링 일정
+ * - 과거 스테이지 평균 실행 시간으로 빌드 완료 예상 시각(ETA)을 계산
+ * - 남은 시간의 절반 뒤에 다시 폴링하여 초반에는 드물게, 완료 직전에는 촘촘하게 폴링
+ * - 응답이 이전과 같으면 간격을 backoff-factor 배씩 늘리되 ETA 를 넘기지 않음
+ * - 이력이 없거나 Bamboo 큐 대기 중이면 bamboo.polling-interval 을 기본 간격으로 사용
+ * 폴링 틱마다 isDue 인 빌드만 Bamboo 에 조회 (일정이 없는 빌드는 즉시 대상)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BuildPollSchedule {
+
+    private final BuildStageResultRepository stageResultRepository;
+
+    @Value("${scheduler.enabled:true}")
+    private boolean schedulerEnabled;
+
+    @Value("${bamboo.polling-interval:30000}")
+    private long defaultIntervalMillis;
+
+    @Value("${bamboo.adaptive-polling.min-interval:10000}")
+    private long minIntervalMillis;
+
+    @Value("${bamboo.adaptive-polling.max-interval:600000}")
+    private long maxIntervalMillis;
+
+    @Value("${bamboo.adaptive-polling.backoff-factor:1.5}")
+    private double backoffFactor;
+
+    private final Map<String, PollState> states = new ConcurrentHashMap<>();
+
+    // 스테이지 이름 → 평균 실행 시간(초)
+    private volatile Map<String, Double> averageStageSeconds = Map.of();
+
+    private static final class PollState {
+        private volatile long nextPollAtMillis;
+        private Long etaAtMillis;
+        private int unchangedCount;
+    }
+
+    /**
+     * 스테이지 평균 실행 시간 갱신
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${bamboo.adaptive-polling.history-refresh-interval:600000}")
+    public void refreshStageDurations() {
+        // 폴링을 하지 않는 노드는 평균을 쓸 일이 없으므로 조회하지 않음
+        if (!schedulerEnabled) {
+            return;
+        }
+        Map<String, Double> averages = new HashMap<>();
+        for (Object[] row : stageResultRepository.getAverageDurationByStage()) {
+            if (row[0] != null && row[1] != null) {
+                averages.put((String) row[0], ((Number) row[1]).doubleValue());
+            }
+        }
+        averageStageSeconds = averages;
+        log.debug("Refreshed average stage durations: {}", averages);
+    }
+
+    public boolean isDue(String buildId, long nowMillis) {
+        PollState state = states.get(buildId);
+        return state == null || state.nextPollAtMillis <= nowMillis;
+    }
+
+    /**
+     * 일정이 잡힌 빌드 중 폴링 시각이 된 빌드가 있는지 (틱마다 활성 빌드 조회 여부 판단용)
+     */
+    public boolean hasDue(long nowMillis) {
+        for (PollState state : states.values()) {
+            if (state.nextPollAtMillis <= nowMillis) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 조회 요청 직후 호출: 응답 전 다음 틱에서 중복 조회하지 않도록 기본 간격 뒤로 미룸
+     * (조회 실패 시에도 기본 간격 뒤 재시도)
+     */
+    public void markPolling(String buildId) {
+        states.computeIfAbsent(buildId, id -> new PollState()).nextPollAtMillis =
+                System.currentTimeMillis() + defaultIntervalMillis;
+    }
+
+    /**
+     * webhook 으로 추적 중인 빌드는 silence window 가 끝나는 시각까지 폴링을 미룸
+     * (push 가 계속 오는 동안 매 틱 다시 판정/집계되지 않도록)
+     */
+    public void deferUntil(String buildId, long pollAtMillis) {
+        states.computeIfAbsent(buildId, id -> new PollState()).nextPollAtMillis = pollAtMillis;
+    }
+
+    /**
+     * 완료 webhook 을 받은 빌드를 다음 폴링 틱에서 바로 조회하도록 당김
+     */
+    public void markDue(String buildId) {
+        states.computeIfAbsent(buildId, id -> new PollState()).nextPollAtMillis = 0;
+    }
+
+    /**
+     * 더 이상 활성 상태가 아니거나 다른 노드 담당이 된 빌드의 일정 제거
+     */
+    public void retainOnly(Set<String> buildIds) {
+        states.keySet().retainAll(buildIds);
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    /**
+     * 폴링 응답을 기록하고 다음 폴링 시각을 계산
+     *
+     * @param stages  변경된 응답이면 반영 후 스테이지 목록, 변경이 없으면 null (직전 ETA 재사용)
+     * @param changed 직전 응답 대비 상태 변화 여부 (BuildStatusDiffCache 판정)
+     * @return 다음 폴링까지 간격 (ms)
+     */
+    public long recordPoll(Build build, BambooBuildStatus status, List<BuildStageResult> stages, boolean changed) {
+        if (status.isFinished()) {
+            states.remove(build.getId());
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        PollState state = states.computeIfAbsent(build.getId(), id -> new PollState());
+        if (changed) {
+            state.unchangedCount = 0;
+        } else {
+            state.unchangedCount++;
+        }
+        if (status.isQueued()) {
+            state.etaAtMillis = null;
+        } else if (stages != null) {
+            Long remaining = estimateRemainingMillis(stages);
+            state.etaAtMillis = remaining != null ? now + remaining : null;
+        }
+
+        Long remainingMillis = state.etaAtMillis != null ? state.etaAtMillis - now : null;
+        long interval;
+        if (remainingMillis == null) {
+            // 예측 불가: 기본 간격에서 backoff
+            interval = backoff(defaultIntervalMillis, state.unchangedCount, maxIntervalMillis);
+        } else if (remainingMillis <= 0) {
+            // 예상 시각 초과: 촘촘히 폴링하되 변화가 없으면 기본 간격까지만 늘림
+            interval = backoff(minIntervalMillis, state.unchangedCount, defaultIntervalMillis);
+        } else {
+            long base = remainingMillis / 2;
+            interval = backoff(base, state.unchangedCount, remainingMillis);
+        }
+        interval = Math.max(minIntervalMillis, Math.min(maxIntervalMillis, interval));
+
+        state.nextPollAtMillis = now + interval;
+        return interval;
+    }
+
+    /**
+     * 미완료 스테이지의 평균 실행 시간 합으로 남은 시간 추정 (실행 중 스테이지는 경과 시간 차감)
+     *
+     * @return 남은 시간 (ms), 이력이 없는 스테이지가 있으면 null
+     */
+    private Long estimateRemainingMillis(List<BuildStageResult> stages) {
+        Map<String, Double> averages = averageStageSeconds;
+        if (averages.isEmpty()) {
+            return null;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        double remainingSeconds = 0;
+        for (BuildStageResult stage : stages) {
+            boolean running = "running".equals(stage.getStatus());
+            if (!running && !"pending".equals(stage.getStatus())) {
+                continue;
+            }
+            Double average = averages.get(stage.getStageName());
+            if (average == null) {
+                return null;
+            }
+            double elapsed = running && stage.getStartedAt() != null
+                    ? Duration.between(stage.getStartedAt(), now).toSeconds()
+                    : 0;
+            remainingSeconds += Math.max(0, average - elapsed);
+        }
+        return (long) (remainingSeconds * 1000);
+    }
+
+    private long backoff(long base, int unchangedCount, long cap) {
+        double interval = base * Math.pow(backoffFactor, Math.min(unchangedCount, 10));
+        return (long) Math.min(interval, Math.max(base, cap));
+    }
+}
@@ -0,0 +1,131 @@
+package com.mintportal.scheduler;
+
+import com.mintportal.entity.BuildQueue;
+import com.mintportal.repository.BuildQueueRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 빌드 큐 점유(claim) 관리
+ * - SELECT ... FOR UPDATE SKIP LOCKED 로 대기 아이템을 노드별로 원자적으로 점유
+ * - 점유한 아이템은 lease 만료 전까지 heartbeat 로 연장
+ * - 죽은 노드의 만료된 lease 는 다시 waiting 으로 회수
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BuildQueueClaimer {
+
+    private final BuildQueueRepository buildQueueRepository;
+    private final SchedulerNode schedulerNode;
+    private final FairShareScheduler fairShareScheduler;
+    private final FairShareConfig fairShareConfig;
+    private final RetryPolicyConfig retryPolicy;
+
+    // 고른 행을 다른 노드가 먼저 가져간 경우 남은 후보에서 다시 고르는 최대 횟수
+    private static final int MAX_PICK_ROUNDS = 3;
+
+    @Value("${scheduler.claim-lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${scheduler.enabled:true}")
+    private boolean schedulerEnabled;
+
+    /**
+     * 대기 중인 아이템을 최대 limit 개 점유
+     * 재시도 시각이 지난 재시도 아이템을 retry lane-slots 만큼 먼저 점유하고,
+     * 남은 슬롯은 신규 아이템 후보 창(candidate-window)을 잠그지 않고 읽어 fair-share 순서로 고른 뒤
+     * 고른 행만 SKIP LOCKED 로 잠금 (다른 노드가 먼저 가져간 행은 남은 후보에서 다시 고름)
+     * 별도 트랜잭션으로 즉시 커밋하여 다른 노드가 같은 아이템을 가져가지 않도록 함
+     *
+     * @return 점유한 큐 아이템 ID (우선순위 순)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<String> claimNext(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        List<BuildQueue> selected = new ArrayList<>(
+                buildQueueRepository.lockDueRetries(Math.min(limit, retryPolicy.getLaneSlots())));
+
+        int freshSlots = limit - selected.size();
+        List<BuildQueue> candidates = List.of();
+        if (freshSlots > 0) {
+            int window = Math.max(freshSlots, fairShareConfig.getCandidateWindow());
+            candidates = buildQueueRepository.findNextWaitingBuilds(window);
+            List<BuildQueue> remaining = new ArrayList<>(candidates);
+            for (int round = 0; round < MAX_PICK_ROUNDS && freshSlots > 0 && !remaining.isEmpty(); round++) {
+                List<BuildQueue> picked = fairShareScheduler.select(remaining, freshSlots);
+                if (picked.isEmpty()) {
+                    break;
+                }
+                Set<String> lockedIds = buildQueueRepository
+                        .lockWaitingByIds(picked.stream().map(BuildQueue::getId).toList()).stream()
+                        .map(BuildQueue::getId)
+                        .collect(Collectors.toSet());
+                for (BuildQueue item : picked) {
+                    if (lockedIds.contains(item.getId())) {
+                        selected.add(item);
+                        freshSlots--;
+                    }
+                }
+                remaining.removeAll(picked);
+            }
+        }
+
+        OffsetDateTime leaseUntil = OffsetDateTime.now().plusSeconds(leaseSeconds);
+        for (BuildQueue item : selected) {
+            item.claim(schedulerNode.getNodeId(), leaseUntil);
+        }
+        buildQueueRepository.saveAll(selected);
+
+        if (!selected.isEmpty()) {
+            log.debug("Node {} claimed {} queue items ({} fresh candidates)",
+                    schedulerNode.getNodeId(), selected.size(), candidates.size());
+        }
+        return selected.stream().map(BuildQueue::getId).toList();
+    }
+
+    /**
+     * 이 노드가 점유 중인 아이템의 lease 연장 (lease 의 1/3 주기)
+     */
+    @Scheduled(fixedDelayString = "#{${scheduler.claim-lease-seconds:120} * 1000 / 3}")
+    @Transactional
+    public void heartbeat() {
+        if (!schedulerEnabled) {
+            return;
+        }
+        int extended = buildQueueRepository.extendLeases(
+                schedulerNode.getNodeId(), OffsetDateTime.now().plusSeconds(leaseSeconds));
+        if (extended > 0) {
+            log.debug("Node {} extended {} queue leases", schedulerNode.getNodeId(), extended);
+        }
+    }
+
+    /**
+     * 만료된 lease 회수 (크래시한 노드가 점유하던 아이템 재처리)
+     */
+    @Scheduled(fixedDelayString = "#{${scheduler.claim-lease-seconds:120} * 1000 / 3}")
+    @Transactional
+    public void releaseExpiredClaims() {
+        if (!schedulerEnabled) {
+            return;
+        }
+        int released = buildQueueRepository.releaseExpiredLeases(OffsetDateTime.now());
+        if (released > 0) {
+            log.warn("Released {} queue items with expired leases", released);
+        }
+    }
+}
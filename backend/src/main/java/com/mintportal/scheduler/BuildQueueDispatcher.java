@@ -0,0 +1,133 @@
+package com.mintportal.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 이벤트 기반 빌드 큐 디스패처
+ * - Postgres LISTEN 으로 큐 변경 알림(enqueue, 취소, 완료)을 받아 즉시 processQueue 실행
+ * - 고정 주기 폴링은 알림 유실 대비 안전망으로만 유지
+ * - 디스패치는 단일 스레드에서 순차 실행, 실행 중 들어온 알림은 한 번의 재실행으로 병합
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BuildQueueDispatcher {
+
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final BuildSchedulerService schedulerService;
+    private final DataSource dataSource;
+
+    @Value("${scheduler.enabled:true}")
+    private boolean schedulerEnabled;
+
+    @Value("${scheduler.queue-notify-enabled:true}")
+    private boolean notifyEnabled;
+
+    private final ExecutorService dispatchExecutor = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "queue-dispatch"));
+    private final AtomicBoolean dispatchPending = new AtomicBoolean(false);
+    private volatile boolean running = true;
+    private Thread listenerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!schedulerEnabled || !notifyEnabled) {
+            return;
+        }
+        listenerThread = new Thread(this::listenLoop, "queue-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    /**
+     * 안전망 폴링 (queue-poll-interval 주기)
+     */
+    @Scheduled(fixedDelayString = "${scheduler.queue-poll-interval:60000}")
+    public void safetyPoll() {
+        requestDispatch();
+    }
+
+    /**
+     * 디스패치 요청 - 이미 대기 중인 요청이 있으면 병합
+     */
+    public void requestDispatch() {
+        if (!schedulerEnabled || !running) {
+            return;
+        }
+        if (dispatchPending.compareAndSet(false, true)) {
+            dispatchExecutor.execute(() -> {
+                dispatchPending.set(false);
+                try {
+                    schedulerService.processQueue();
+                } catch (Exception e) {
+                    log.error("Queue dispatch failed: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("LISTEN " + BuildQueueNotifier.CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for queue notifications on channel '{}'", BuildQueueNotifier.CHANNEL);
+
+                // 연결 직후 놓친 변경이 있을 수 있으므로 한 번 디스패치
+                requestDispatch();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(5000);
+                    if (notifications != null && notifications.length > 0) {
+                        log.debug("Received {} queue notifications (last: {})",
+                                notifications.length, notifications[notifications.length - 1].getParameter());
+                        requestDispatch();
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Queue listener connection lost, reconnecting in {} ms: {}",
+                        RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        dispatchExecutor.shutdown();
+        dispatchExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,59 @@
+package com.mintportal.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 빌드 큐 변경 알림 발행 (Postgres NOTIFY)
+ * - 트랜잭션 안에서 호출하면 커밋 후 별도 트랜잭션으로 발행 (롤백 시 발행하지 않음)
+ *   호출한 트랜잭션에서 직접 실행하지 않으므로 NOTIFY 가 실패해도 본 작업 트랜잭션은 영향받지 않음
+ * - 트랜잭션 밖에서 호출하면 즉시 발행
+ */
+@Component
+@Slf4j
+public class BuildQueueNotifier {
+
+    public static final String CHANNEL = "build_queue";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate notifyTransaction;
+
+    public BuildQueueNotifier(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notifyTransaction = new TransactionTemplate(transactionManager);
+        this.notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param event 알림 사유 (enqueued, cancelled, completed, failed ...)
+     */
+    public void publish(String event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+            return;
+        }
+        send(event);
+    }
+
+    private void send(String event) {
+        try {
+            // 커밋 직후에도 기존 커넥션이 바인딩되어 있으므로 새 트랜잭션에서 발행
+            notifyTransaction.executeWithoutResult(tx ->
+                    jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, event));
+        } catch (Exception e) {
+            // 알림 실패 시에도 안전망 폴링이 처리
+            log.warn("Failed to publish queue notification '{}': {}", event, e.getMessage());
+        }
+    }
+}
@@ -1,18 +1,28 @@
 package com.mintportal.scheduler;
 
-import com.mintportal.bamboo.BambooClient;
+import com.mintportal.bamboo.BambooOperation;
 import com.mintportal.bamboo.BambooParamsGenerator;
+import com.mintportal.bamboo.BambooPlanCatalog;
+import com.mintportal.bamboo.BambooRateLimiter;
+import com.mintportal.bamboo.BambooTransport;
+import com.mintportal.dto.BuildTriggerRequest;
 import com.mintportal.entity.*;
 import com.mintportal.repository.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.OffsetDateTime;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 
 /**
  * 빌드 스케줄러 서비스
@@ -27,259 +37,377 @@ import java.util.*;
 public class BuildSchedulerService {
 
     private final BuildQueueRepository buildQueueRepository;
-    private final BuildRequestRepository buildRequestRepository;
-    private final BuildRepository buildRepository;
-    private final BuildStageResultRepository stageResultRepository;
     private final ProjectRepository projectRepository;
     private final LayerRepository layerRepository;
     private final UserRepository userRepository;
 
-    private final BambooClient bambooClient;
     private final BambooParamsGenerator paramsGenerator;
-
-    @Value("${scheduler.max-concurrent-builds:5}")
-    private int maxConcurrentBuilds;
+    private final BuildQueueClaimer queueClaimer;
+    private final BuildQueueNotifier queueNotifier;
+    private final FairShareScheduler fairShareScheduler;
+    private final RetryPolicyConfig retryPolicy;
+    private final QueueItemProcessor itemProcessor;
+    private final BambooOutboxRelay outboxRelay;
+    private final BuildRepository buildRepository;
+    private final AdaptiveConcurrencyController concurrencyController;
+    private final BuildStatusMetrics statusMetrics;
+    private final BambooTransport bambooTransport;
+    private final BambooRateLimiter bambooRateLimiter;
+    private final BambooPlanCatalog planCatalog;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${scheduler.enabled:true}")
     private boolean schedulerEnabled;
 
+    @Value("${scheduler.dispatch-parallelism:8}")
+    private int dispatchParallelism;
+
+    @Value("${scheduler.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Value("${scheduler.outbox.concurrency:4}")
+    private int outboxConcurrency;
+
+    // LISTEN 전용 연결 1 + 웹 요청/주기 작업용 여유분
+    private static final int RESERVED_CONNECTIONS = 1 + 4;
+
+    // 동일 요청 병합용 부분 unique 인덱스 (layer_id, params_hash) WHERE waiting AND retry_count = 0
+    private static final String COALESCE_CONSTRAINT = "uq_build_queue_waiting_hash";
+
+    private final ExecutorService dispatchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private Semaphore dispatchPermits;
+
     /**
-     * 빌드 큐 처리 (10초마다 실행)
+     * 디스패치 동시 실행 수를 커넥션 풀 크기에 맞춤
+     * 아이템 준비 1건이 준비 트랜잭션 + 번호 발급(REQUIRES_NEW)으로 연결 2개를 점유하므로
+     * 풀이 부족하면 병렬 디스패치끼리 연결을 기다리다 connection-timeout 에 걸림
+     */
+    @PostConstruct
+    void init() {
+        int available = connectionPoolSize - RESERVED_CONNECTIONS - outboxConcurrency;
+        int parallelism = Math.max(1, Math.min(dispatchParallelism, available / 2));
+        if (parallelism < dispatchParallelism) {
+            log.warn("dispatch-parallelism {} exceeds connection pool budget (pool {}), using {}. " +
+                     "Raise spring.datasource.hikari.maximum-pool-size to at least {}",
+                    dispatchParallelism, connectionPoolSize, parallelism,
+                    dispatchParallelism * 2 + RESERVED_CONNECTIONS + outboxConcurrency);
+        }
+        dispatchPermits = new Semaphore(parallelism);
+    }
+
+    /**
+     * 빌드 큐 처리
+     * BuildQueueDispatcher 가 큐 변경 알림(NOTIFY) 수신 시 및 안전망 주기마다 호출
+     * 점유한 아이템은 virtual thread 에서 병렬로 준비(아이템별 트랜잭션)한 뒤 outbox relay 로 전송
      */
-    @Scheduled(fixedDelayString = "${scheduler.queue-poll-interval:10000}")
-    @Transactional
     public void processQueue() {
         if (!schedulerEnabled) {
             return;
         }
 
-        long runningCount = buildQueueRepository.countProcessingBuilds();
-        if (runningCount >= maxConcurrentBuilds) {
-            log.debug("Max concurrent builds reached ({}/{}), waiting...", runningCount, maxConcurrentBuilds);
+        // Bamboo 트리거 circuit breaker 가 열려 있으면 점유하지 않고 대기 (닫히면 다음 알림/주기에 재개)
+        if (bambooTransport.isOpen(BambooOperation.TRIGGER)) {
+            log.debug("Bamboo trigger circuit is open, pausing dispatch");
+            return;
+        }
+
+        // 실행 중 빌드 + 점유했지만 아직 트리거 전인 아이템을 한도와 비교
+        int limit = concurrencyController.currentLimit();
+        long inFlight = buildRepository.countActiveBuilds() + buildQueueRepository.countClaimedUnprepared();
+        if (inFlight >= limit) {
+            concurrencyController.recordSaturation(true);
+            log.debug("Max concurrent builds reached ({}/{}), waiting...", inFlight, limit);
             return;
         }
 
-        int availableSlots = (int) (maxConcurrentBuilds - runningCount);
-        List<BuildQueue> waitingBuilds = buildQueueRepository.findWaitingBuilds();
+        int availableSlots = (int) (limit - inFlight);
 
-        for (int i = 0; i < Math.min(availableSlots, waitingBuilds.size()); i++) {
-            BuildQueue queueItem = waitingBuilds.get(i);
+        // 다른 노드와 겹치지 않도록 SKIP LOCKED 로 점유한 아이템만 처리
+        List<String> claimedIds = queueClaimer.claimNext(availableSlots);
+        if (claimedIds.isEmpty()) {
+            return;
+        }
+        concurrencyController.recordSaturation(claimedIds.size() >= availableSlots);
+
+        List<Future<?>> futures = new ArrayList<>(claimedIds.size());
+        for (String queueId : claimedIds) {
+            futures.add(dispatchExecutor.submit(() -> dispatchItem(queueId)));
+        }
+        for (Future<?> future : futures) {
             try {
-                processQueueItem(queueItem);
-            } catch (Exception e) {
-                log.error("Error processing queue item {}: {}", queueItem.getId(), e.getMessage());
-                queueItem.markFailed(e.getMessage());
-                buildQueueRepository.save(queueItem);
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Queue dispatch task failed: {}", e.getCause().getMessage());
             }
         }
+
+        // 준비된 outbox 항목 즉시 전송
+        outboxRelay.requestDrain();
     }
 
     /**
-     * 큐 아이템 처리 - Bamboo로 빌드 요청 전송
+     * 큐 아이템 하나 준비 - dispatch-parallelism 으로 동시 실행 수 제한
+     * Bamboo 호출은 커밋된 outbox 항목을 BambooOutboxRelay 가 수행
      */
-    @Transactional
-    public void processQueueItem(BuildQueue queueItem) {
-        log.info("Processing queue item: {} (project: {}, layer: {})",
-                queueItem.getId(),
-                queueItem.getProject().getId(),
-                queueItem.getLayer().getId());
-
-        queueItem.startProcessing();
-        buildQueueRepository.save(queueItem);
-
-        Project project = queueItem.getProject();
-        Layer layer = queueItem.getLayer();
-        User requester = queueItem.getRequester();
-
-        // Bamboo 파라미터 생성
-        Map<String, Object> bambooParams = paramsGenerator.generateParams(
-                project,
-                layer,
-                requester,
-                queueItem.getScmOverride(),
-                queueItem.getBuildOverride()
-        );
-
-        // BuildRequest 생성 (전송 파라미터 기록)
-        BuildRequest request = BuildRequest.builder()
-                .queue(queueItem)
-                .project(project)
-                .layer(layer)
-                .requestParams(bambooParams)
-                .bambooPlanKey(project.getPlanId())
-                .requestStatus("sent")
-                .build();
-        buildRequestRepository.save(request);
-
-        // 빌드 스냅샷 생성
-        Map<String, Object> buildSnapshot = paramsGenerator.createBuildSnapshot(
-                project, layer,
-                queueItem.getScmOverride(),
-                queueItem.getBuildOverride()
-        );
-
-        // Build 엔티티 생성
-        Integer nextRound = buildRepository.findMaxRoundByLayerId(layer.getId());
-        nextRound = (nextRound == null ? 0 : nextRound) + 1;
-
-        Integer nextBuildNumber = buildRepository.findMaxBuildNumberByProjectId(project.getId());
-        nextBuildNumber = (nextBuildNumber == null ? 0 : nextBuildNumber) + 1;
-
-        Build build = Build.builder()
-                .request(request)
-                .project(project)
-                .layer(layer)
-                .round(nextRound)
-                .buildNumber(nextBuildNumber)
-                .status("pending")
-                .buildSnapshot(buildSnapshot)
-                .triggeredBy(requester)
-                .triggerType(queueItem.getReqMethod())
-                .build();
-        buildRepository.save(build);
-
-        // Build Stage Results 생성 (Build, SAM, Coverity)
-        createStageResults(build, layer);
+    private void dispatchItem(String queueId) {
+        try {
+            dispatchPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            itemProcessor.prepare(queueId);
+        } catch (Exception e) {
+            log.error("Error processing queue item {}: {}", queueId, e.getMessage());
+            itemProcessor.markFailed(queueId, e.getMessage());
+        } finally {
+            dispatchPermits.release();
+        }
+    }
 
-        // Bamboo API 호출
-        triggerBambooBuild(queueItem, request, build, bambooParams);
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdown();
     }
 
     /**
-     * 빌드 스테이지 결과 초기 생성
+     * 빌드를 큐에 추가
+     * 같은 레이어에 동일 파라미터로 대기 중인 요청이 있으면 새로 추가하지 않고 병합
      */
-    private void createStageResults(Build build, Layer layer) {
-        List<BuildStageResult> stages = new ArrayList<>();
+    public BuildQueue enqueue(String projectId, String layerId, String requesterId,
+                              String reqMethod, int priority,
+                              Map<String, Object> scmOverride,
+                              Map<String, Object> buildOverride) {
+        return withCoalesceRetry(() -> doEnqueue(projectId, layerId, requesterId, reqMethod, priority,
+                scmOverride, buildOverride));
+    }
 
-        // Build stage (항상 활성)
-        stages.add(createStageResult(build, "Build", 1,
-                layer.getBuildEnabled() != null && layer.getBuildEnabled()));
+    private BuildQueue doEnqueue(String projectId, String layerId, String requesterId,
+                                 String reqMethod, int priority,
+                                 Map<String, Object> scmOverride,
+                                 Map<String, Object> buildOverride) {
 
-        // SAM stage
-        stages.add(createStageResult(build, "SAM", 2,
-                layer.getSamEnabled() != null && layer.getSamEnabled()));
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new IllegalArgumentException("Project not found: " + projectId));
+        Layer layer = layerRepository.findById(layerId)
+                .orElseThrow(() -> new IllegalArgumentException("Layer not found: " + layerId));
+        // 잘못된 플랜은 트리거 재시도를 소모하기 전에 여기서 거절 (캐시만 확인, Bamboo 호출을 기다리지 않음)
+        planCatalog.requireTriggerable(project.getPlanId());
+        User requester = requesterId != null ?
+                userRepository.findById(requesterId).orElse(null) : null;
+        String method = reqMethod != null ? reqMethod : "manual";
 
-        // Coverity stage
-        stages.add(createStageResult(build, "Coverity", 3,
-                layer.getCoverityEnabled() != null && layer.getCoverityEnabled()));
+        String paramsHash = paramsGenerator.paramsFingerprint(project, layer, scmOverride, buildOverride);
 
-        stageResultRepository.saveAll(stages);
-    }
+        Optional<BuildQueue> existing = buildQueueRepository.findCoalesceTarget(layerId, paramsHash);
+        if (existing.isPresent()) {
+            BuildQueue queueItem = existing.get();
+            queueItem.mergeRequest(requesterId, method, priority);
+            log.info("Coalesced build request into queue item {} (layer: {}, requesters: {})",
+                    queueItem.getId(), layerId, queueItem.getRequesters().size());
+            return buildQueueRepository.save(queueItem);
+        }
 
-    private BuildStageResult createStageResult(Build build, String stageName, int order, boolean enabled) {
-        return BuildStageResult.builder()
-                .build(build)
-                .stageName(stageName)
-                .stageOrder(order)
-                .status(enabled ? "pending" : "skipped")
-                .build();
+        BuildQueue queueItem = newQueueItem(project, layer, requester, requesterId, method, priority,
+                scmOverride, buildOverride, paramsHash);
+
+        // 동시에 같은 요청이 삽입되면 부분 unique 인덱스 위반으로 여기서 실패 → 재시도 시 병합
+        BuildQueue saved = buildQueueRepository.saveAndFlush(queueItem);
+        queueNotifier.publish("enqueued");
+        return saved;
     }
 
     /**
-     * Bamboo 빌드 트리거
+     * 트랜잭션 실행, 동일 요청 동시 삽입으로 unique 인덱스(layer_id, params_hash)가 위반되면
+     * 새 트랜잭션에서 한 번 더 실행 (먼저 커밋된 아이템을 찾아 병합됨)
      */
-    private void triggerBambooBuild(BuildQueue queueItem, BuildRequest request, Build build, Map<String, Object> params) {
-        String planKey = request.getBambooPlanKey();
-
-        // 파라미터를 String 맵으로 변환 (Bamboo API 요구사항)
-        Map<String, String> stringParams = new HashMap<>();
-        params.forEach((key, value) -> {
-            if (value != null) {
-                if (value instanceof Map || value instanceof List) {
-                    // JSON으로 직렬화
-                    try {
-                        stringParams.put(key, new com.fasterxml.jackson.databind.ObjectMapper()
-                                .writeValueAsString(value));
-                    } catch (Exception e) {
-                        stringParams.put(key, value.toString());
-                    }
-                } else {
-                    stringParams.put(key, value.toString());
-                }
+    private <T> T withCoalesceRetry(Supplier<T> work) {
+        try {
+            return transactionTemplate.execute(tx -> work.get());
+        } catch (DataIntegrityViolationException e) {
+            // FK / NOT NULL / 길이 위반 등은 다시 실행해도 같으므로 그대로 전달
+            if (!isCoalesceConflict(e)) {
+                throw e;
             }
-        });
+            log.debug("Concurrent identical enqueue detected, retrying to coalesce: {}", e.getMessage());
+            return transactionTemplate.execute(tx -> work.get());
+        }
+    }
 
-        bambooClient.triggerBuild(planKey, stringParams)
-                .subscribe(
-                        result -> handleBuildTriggered(queueItem, request, build, result),
-                        error -> handleBuildTriggerError(queueItem, request, build, error)
-                );
+    // 위반된 제약이 병합용 부분 unique 인덱스인지 (Hibernate 가 제약 이름을 못 뽑으면 드라이버 메시지로 확인)
+    private static boolean isCoalesceConflict(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && COALESCE_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException && cause.getMessage() != null
+                    && cause.getMessage().contains(COALESCE_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private void handleBuildTriggered(BuildQueue queueItem, BuildRequest request, Build build,
-                                       com.mintportal.bamboo.BambooBuildResult result) {
-        log.info("Bamboo build triggered successfully: {} for build {}",
-                result.getBuildResultKey(), build.getId());
-
-        // Request 업데이트
-        request.markAccepted(result.getBuildResultKey());
-        buildRequestRepository.save(request);
-
-        // Build 업데이트
-        build.setBambooBuildKey(result.getBuildResultKey());
-        build.setBambooBuildNumber(result.getBuildNumber());
-        build.start();
-        buildRepository.save(build);
-
-        // Queue 완료 처리
-        queueItem.markCompleted();
-        buildQueueRepository.save(queueItem);
-
-        // 첫 번째 스테이지 시작
-        stageResultRepository.findByBuildIdAndStageName(build.getId(), "Build")
-                .ifPresent(stage -> {
-                    stage.start();
-                    stageResultRepository.save(stage);
-                });
+    /**
+     * 여러 빌드를 한 트랜잭션으로 큐에 추가 (야간 일괄 트리거용)
+     * - 프로젝트/레이어/사용자를 IN 쿼리로 한 번에 조회
+     * - 기존 대기 아이템 및 요청 목록 내 중복은 병합
+     * - 신규 아이템은 JDBC batch insert
+     * - scheduler.max-batch-size 초과 시 IllegalArgumentException (400)
+     *
+     * @return 요청 순서대로의 아이템별 결과 (queueId, status, coalesced 또는 error)
+     */
+    public List<Map<String, Object>> enqueueBatch(List<BuildTriggerRequest> requests) {
+        // 한 트랜잭션에서 처리하므로 크기 제한 (락/메모리 점유 방지)
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch too large: " + requests.size()
+                    + " requests (max " + maxBatchSize + ")");
+        }
+        return withCoalesceRetry(() -> doEnqueueBatch(requests));
     }
 
-    private void handleBuildTriggerError(BuildQueue queueItem, BuildRequest request, Build build, Throwable error) {
-        log.error("Failed to trigger Bamboo build for build {}: {}", build.getId(), error.getMessage());
+    private List<Map<String, Object>> doEnqueueBatch(List<BuildTriggerRequest> requests) {
+        Set<String> projectIds = new HashSet<>();
+        Set<String> layerIds = new HashSet<>();
+        Set<String> userIds = new HashSet<>();
+        for (BuildTriggerRequest request : requests) {
+            if (request.getProjectId() != null) projectIds.add(request.getProjectId());
+            if (request.getLayerId() != null) layerIds.add(request.getLayerId());
+            if (request.getRequesterId() != null) userIds.add(request.getRequesterId());
+        }
 
-        // Request 에러 처리
-        request.markError(error.getMessage());
-        buildRequestRepository.save(request);
+        Map<String, Project> projects = new HashMap<>();
+        projectRepository.findAllById(projectIds).forEach(p -> projects.put(p.getId(), p));
+        Map<String, Layer> layers = new HashMap<>();
+        layerRepository.findAllById(layerIds).forEach(l -> layers.put(l.getId(), l));
+        Map<String, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(u -> users.put(u.getId(), u));
+
+        // 파라미터 해시 계산 후 기존 대기 아이템을 한 번에 조회 (layerId:hash -> item)
+        String[] hashes = new String[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            BuildTriggerRequest request = requests.get(i);
+            Project project = projects.get(request.getProjectId());
+            Layer layer = layers.get(request.getLayerId());
+            if (project != null && layer != null) {
+                hashes[i] = paramsGenerator.paramsFingerprint(
+                        project, layer, request.getScmOverride(), request.getBuildOverride());
+            }
+        }
 
-        // Build 실패 처리
-        build.complete("failed");
-        buildRepository.save(build);
+        Map<String, BuildQueue> waitingByKey = new HashMap<>();
+        Set<String> hashSet = new HashSet<>(Arrays.asList(hashes));
+        hashSet.remove(null);
+        if (!hashSet.isEmpty()) {
+            for (BuildQueue item : buildQueueRepository.findCoalesceTargets(hashSet)) {
+                waitingByKey.putIfAbsent(item.getLayer().getId() + ":" + item.getParamsHash(), item);
+            }
+        }
 
-        // Queue 재시도 처리
-        queueItem.markFailed(error.getMessage());
-        buildQueueRepository.save(queueItem);
-    }
+        List<Map<String, Object>> results = new ArrayList<>(requests.size());
+        Map<String, BuildQueue> touched = new LinkedHashMap<>();
+        Map<String, BambooPlanCatalog.Validation> planValidations = new HashMap<>();
+        BuildQueue[] assigned = new BuildQueue[requests.size()];
+        // 요청별 병합 여부 (이미 있던 아이템에 합류한 경우만 true, 아이템을 만든 요청은 false)
+        boolean[] joined = new boolean[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            BuildTriggerRequest request = requests.get(i);
+            Project project = projects.get(request.getProjectId());
+            Layer layer = layers.get(request.getLayerId());
+            if (project == null || layer == null) {
+                results.add(Map.of(
+                        "index", i,
+                        "error", project == null
+                                ? "Project not found: " + request.getProjectId()
+                                : "Layer not found: " + request.getLayerId()));
+                continue;
+            }
+            if (project.getPlanId() != null) {
+                BambooPlanCatalog.Validation validation =
+                        planValidations.computeIfAbsent(project.getPlanId(), planCatalog::validate);
+                if (validation == BambooPlanCatalog.Validation.MISSING
+                        || validation == BambooPlanCatalog.Validation.DISABLED) {
+                    results.add(Map.of(
+                            "index", i,
+                            "error", (validation == BambooPlanCatalog.Validation.MISSING
+                                    ? "Unknown Bamboo plan: "
+                                    : "Bamboo plan is disabled: ") + project.getPlanId()));
+                    continue;
+                }
+            }
 
-    /**
-     * 빌드를 큐에 추가
-     */
-    @Transactional
-    public BuildQueue enqueue(String projectId, String layerId, String requesterId,
-                              String reqMethod, int priority,
-                              Map<String, Object> scmOverride,
-                              Map<String, Object> buildOverride) {
+            String method = request.getReqMethod() != null ? request.getReqMethod() : "manual";
+            int priority = request.getPriority() != null ? request.getPriority() : 0;
+            String key = layer.getId() + ":" + hashes[i];
+
+            BuildQueue queueItem = waitingByKey.get(key);
+            if (queueItem != null) {
+                queueItem.mergeRequest(request.getRequesterId(), method, priority);
+                joined[i] = true;
+            } else {
+                queueItem = newQueueItem(project, layer, users.get(request.getRequesterId()),
+                        request.getRequesterId(), method, priority,
+                        request.getScmOverride(), request.getBuildOverride(), hashes[i]);
+                waitingByKey.put(key, queueItem);
+            }
+            touched.put(key, queueItem);
+            assigned[i] = queueItem;
+            results.add(null);
+        }
 
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new IllegalArgumentException("Project not found: " + projectId));
-        Layer layer = layerRepository.findById(layerId)
-                .orElseThrow(() -> new IllegalArgumentException("Layer not found: " + layerId));
-        User requester = requesterId != null ?
-                userRepository.findById(requesterId).orElse(null) : null;
+        buildQueueRepository.saveAllAndFlush(touched.values());
+
+        for (int i = 0; i < requests.size(); i++) {
+            BuildQueue queueItem = assigned[i];
+            if (queueItem != null) {
+                results.set(i, Map.of(
+                        "index", i,
+                        "queueId", queueItem.getId(),
+                        "status", queueItem.getQueueStatus(),
+                        "coalesced", joined[i]));
+            }
+        }
+
+        if (!touched.isEmpty()) {
+            queueNotifier.publish("enqueued");
+        }
+        log.info("Batch enqueue: {} requests -> {} queue items", requests.size(), touched.size());
+        return results;
+    }
 
+    private BuildQueue newQueueItem(Project project, Layer layer, User requester, String requesterId,
+                                    String method, int priority,
+                                    Map<String, Object> scmOverride,
+                                    Map<String, Object> buildOverride,
+                                    String paramsHash) {
         BuildQueue queueItem = BuildQueue.builder()
                 .project(project)
                 .layer(layer)
                 .requester(requester)
-                .reqMethod(reqMethod != null ? reqMethod : "manual")
+                .reqMethod(method)
                 .priority(priority)
                 .scmOverride(scmOverride)
                 .buildOverride(buildOverride)
+                .paramsHash(paramsHash)
+                .maxRetries(retryPolicy.maxRetries(method))
                 .build();
-
-        return buildQueueRepository.save(queueItem);
+        queueItem.addRequester(requesterId, method, priority);
+        return queueItem;
     }
 
     /**
      * 큐 아이템 취소
+     *
+     * @throws BuildNotCancellableException 대기 상태가 아닌 아이템 (409)
      */
     @Transactional
     public void cancelQueueItem(String queueId) {
@@ -289,9 +417,10 @@ public class BuildSchedulerService {
         if ("waiting".equals(queueItem.getQueueStatus())) {
             queueItem.setQueueStatus("cancelled");
             buildQueueRepository.save(queueItem);
+            queueNotifier.publish("cancelled");
             log.info("Queue item {} cancelled", queueId);
         } else {
-            throw new IllegalStateException("Cannot cancel queue item in status: " + queueItem.getQueueStatus());
+            throw new BuildNotCancellableException("Cannot cancel queue item in status: " + queueItem.getQueueStatus());
         }
     }
 
@@ -302,8 +431,14 @@ public class BuildSchedulerService {
         Map<String, Object> status = new HashMap<>();
         status.put("waiting", buildQueueRepository.countWaitingBuilds());
         status.put("processing", buildQueueRepository.countProcessingBuilds());
-        status.put("maxConcurrent", maxConcurrentBuilds);
+        status.put("maxConcurrent", concurrencyController.currentLimit());
         status.put("schedulerEnabled", schedulerEnabled);
+        status.put("fairShare", fairShareScheduler.getTenantStatus());
+        status.put("concurrency", concurrencyController.getStatus());
+        status.put("statusTracking", statusMetrics.getStatus());
+        status.put("bamboo", bambooTransport.getStatus());
+        status.put("bambooRateLimit", bambooRateLimiter.getStatus());
+        status.put("planCatalog", planCatalog.getStatus());
         return status;
     }
 }
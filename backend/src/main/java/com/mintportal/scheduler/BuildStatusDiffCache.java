@@ -0,0 +1,72 @@
+package com.mintportal.scheduler;
+
+import com.mintportal.bamboo.BambooBuildStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 빌드별 마지막 Bamboo 응답 요약 캐시
+ * - 빌드 키별로 lifecycle/state 해시와 스테이지별 상태 해시를 보관
+ * - 폴링 응답이 직전에 반영한 응답과 같으면 DB 반영을 건너뜀
+ * - 반영이 커밋된 뒤에만 remember 하므로 실패한 반영은 다음 폴링에서 다시 시도
+ * - 최대 max-entries 개까지 LRU 로 유지
+ */
+@Component
+public class BuildStatusDiffCache {
+
+    private record Snapshot(int lifecycleHash, Map<String, Integer> stageHashes) {}
+
+    private final Map<String, Snapshot> snapshots;
+
+    public BuildStatusDiffCache(@Value("${bamboo.status-cache.max-entries:2000}") int maxEntries) {
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * 직전에 반영한 응답과 lifecycle 및 모든 스테이지 상태가 같은지 여부
+     */
+    public boolean isUnchanged(String bambooBuildKey, BambooBuildStatus status) {
+        Snapshot previous = snapshots.get(bambooBuildKey);
+        return previous != null && previous.equals(snapshot(status));
+    }
+
+    /**
+     * DB 반영이 끝난 응답 기록 (완료된 빌드는 제거)
+     */
+    public void remember(String bambooBuildKey, BambooBuildStatus status) {
+        if (status.isFinished()) {
+            snapshots.remove(bambooBuildKey);
+        } else {
+            snapshots.put(bambooBuildKey, snapshot(status));
+        }
+    }
+
+    public void forget(String bambooBuildKey) {
+        snapshots.remove(bambooBuildKey);
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    private static Snapshot snapshot(BambooBuildStatus status) {
+        int lifecycleHash = Objects.hash(status.getLifeCycleState(), status.getState(), status.getBuildState());
+        Map<String, Integer> stageHashes = new LinkedHashMap<>();
+        if (status.getStages() != null && status.getStages().getStage() != null) {
+            for (BambooBuildStatus.Stage stage : status.getStages().getStage()) {
+                stageHashes.put(stage.getName(), Objects.hashCode(stage.getState()));
+            }
+        }
+        return new Snapshot(lifecycleHash, stageHashes);
+    }
+}
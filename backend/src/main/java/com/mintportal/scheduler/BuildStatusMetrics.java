@@ -0,0 +1,95 @@
+package com.mintportal.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 빌드 상태 수신 경로 지표
+ * - mint.build.status.events{source=push}: Bamboo webhook 으로 받은 상태
+ * - mint.build.status.events{source=poll}: 폴링으로 받은 상태
+ * - mint.build.status.push.ratio: 전체 상태 수신 중 webhook 비율
+ * - mint.build.poll.suppressed: 최근 webhook 수신으로 생략한 폴링
+ * - mint.build.status.diff{result=changed|unchanged}: 폴링 응답 중 DB 반영 / 생략 건수
+ * - mint.build.status.write.skipped.ratio: 폴링 응답 중 변화가 없어 DB 반영을 생략한 비율
+ */
+@Component
+public class BuildStatusMetrics {
+
+    private final Counter pushCounter;
+    private final Counter pollCounter;
+    private final Counter suppressedCounter;
+    private final Counter changedCounter;
+    private final Counter unchangedCounter;
+
+    public BuildStatusMetrics(MeterRegistry registry) {
+        this.pushCounter = Counter.builder("mint.build.status.events")
+                .tag("source", "push")
+                .description("Build status updates received via Bamboo webhook")
+                .register(registry);
+        this.pollCounter = Counter.builder("mint.build.status.events")
+                .tag("source", "poll")
+                .description("Build status updates fetched by polling Bamboo")
+                .register(registry);
+        this.suppressedCounter = Counter.builder("mint.build.poll.suppressed")
+                .description("Polls skipped because the build pushed recently")
+                .register(registry);
+        this.changedCounter = Counter.builder("mint.build.status.diff")
+                .tag("result", "changed")
+                .description("Polled statuses written to the database")
+                .register(registry);
+        this.unchangedCounter = Counter.builder("mint.build.status.diff")
+                .tag("result", "unchanged")
+                .description("Polled statuses skipped because nothing changed")
+                .register(registry);
+        Gauge.builder("mint.build.status.write.skipped.ratio", this, BuildStatusMetrics::skippedWriteRatio)
+                .description("Share of polled statuses that needed no database write")
+                .register(registry);
+        Gauge.builder("mint.build.status.push.ratio", this, BuildStatusMetrics::pushRatio)
+                .description("Share of build status updates received via webhook")
+                .register(registry);
+    }
+
+    public void recordPush() {
+        pushCounter.increment();
+    }
+
+    public void recordPolls(int count) {
+        pollCounter.increment(count);
+    }
+
+    public void recordSuppressed(int count) {
+        suppressedCounter.increment(count);
+    }
+
+    public void recordDiff(int changed, int unchanged) {
+        changedCounter.increment(changed);
+        unchangedCounter.increment(unchanged);
+    }
+
+    public double skippedWriteRatio() {
+        double unchanged = unchangedCounter.count();
+        double total = unchanged + changedCounter.count();
+        return total == 0 ? 0.0 : unchanged / total;
+    }
+
+    public double pushRatio() {
+        double push = pushCounter.count();
+        double total = push + pollCounter.count();
+        return total == 0 ? 0.0 : push / total;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("push", (long) pushCounter.count());
+        status.put("poll", (long) pollCounter.count());
+        status.put("suppressedPolls", (long) suppressedCounter.count());
+        status.put("pushRatio", pushRatio());
+        status.put("skippedWriteRatio", skippedWriteRatio());
+        return status;
+    }
+}
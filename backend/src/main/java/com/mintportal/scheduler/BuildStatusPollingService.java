@@ -2,6 +2,11 @@ package com.mintportal.scheduler;
 
 import com.mintportal.bamboo.BambooClient;
 import com.mintportal.bamboo.BambooBuildStatus;
+import com.mintportal.bamboo.BambooOperation;
+import com.mintportal.bamboo.BambooPriority;
+import com.mintportal.bamboo.BambooResultList;
+import com.mintportal.bamboo.BambooTransport;
+import com.mintportal.bamboo.BambooUnavailableException;
 import com.mintportal.entity.Build;
 import com.mintportal.entity.BuildStageResult;
 import com.mintportal.repository.BuildRepository;
@@ -9,72 +14,324 @@ import com.mintportal.repository.BuildStageResultRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 /**
- * Bamboo 빌드 상태 폴링 서비스
+ * Bamboo 빌드 상태 폴링 서비스 (빌드 상태 reconciliation 단일 진입점)
  * - 실행 중인 빌드의 상태를 주기적으로 확인
  * - 각 스테이지(Build, SAM, Coverity)의 결과를 개별 처리
+ * - 추적 대상은 DB 의 활성 빌드와 Build.bambooBuildKey 로 결정되므로 재시작 후에도 그대로 이어서 추적
+ * - 빌드 ID ↔ Bamboo 키 조회는 builds PK / bamboo_build_key 유니크 인덱스로 처리
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BuildStatusPollingService {
 
+    // 플랜 결과 목록 조회 시, 폴링 대상 이후 트리거된 빌드를 위한 여유분
+    private static final int PLAN_RESULT_WINDOW_SLACK = 10;
+
     private final BuildRepository buildRepository;
     private final BuildStageResultRepository stageResultRepository;
     private final BambooClient bambooClient;
+    private final BambooTransport bambooTransport;
+    private final BuildQueueNotifier queueNotifier;
+    private final AdaptiveConcurrencyController concurrencyController;
+    private final ClusterMembership clusterMembership;
+    private final BuildPollSchedule pollSchedule;
+    private final QueueItemProcessor itemProcessor;
+
+    private final TransactionTemplate transactionTemplate;
+    private final BuildStatusMetrics statusMetrics;
+    private final BuildStatusDiffCache statusCache;
+
+    private final ReentrantLock cycleLock = new ReentrantLock();
 
     @Value("${scheduler.enabled:true}")
     private boolean schedulerEnabled;
 
+    @Value("${bamboo.polling-concurrency:16}")
+    private int pollConcurrency;
+
+    @Value("${bamboo.polling-plan-window-max:100}")
+    private int planResultWindowMax;
+
+    @Value("${bamboo.polling-timeout-seconds:10}")
+    private long pollTimeoutSeconds;
+
+    // 폴링 시각이 된 빌드가 없어도 이 간격마다 활성 빌드를 다시 조회 (새로 트리거된 빌드 편입)
+    @Value("${bamboo.adaptive-polling.active-refresh-interval:30000}")
+    private long activeRefreshIntervalMillis;
+
+    private volatile long lastActiveRefreshMillis;
+
+    // 마지막 webhook 이후 이 시간 동안은 폴링하지 않음
+    @Value("${bamboo.webhook.silence-window-seconds:300}")
+    private long silenceWindowSeconds;
+
     /**
-     * 빌드 상태 폴링 (30초마다 실행)
+     * 빌드 상태 폴링 틱 (기본 5초)
+     * 이 노드 담당 빌드 중 BuildPollSchedule 상 폴링 시각이 된 빌드만 조회
+     * - 폴링 시각이 된 빌드가 없으면 active-refresh-interval 마다만 활성 빌드를 DB 에서 읽음
+     * - silence window 안에 webhook 을 받은 빌드는 push 로 추적 중이므로 제외
+     * - 같은 플랜의 빌드는 플랜 결과 목록 한 번으로 조회 (플랜당 1요청)
+     * - Bamboo 조회는 polling-concurrency 개까지 동시에, 요청마다 timeout 적용
+     * - 응답을 모아 한 트랜잭션에서 일괄 반영 (변경분은 커밋 시 JDBC batch 로 flush)
      */
-    @Scheduled(fixedDelayString = "${bamboo.polling-interval:30000}")
-    @Transactional
+    @Scheduled(fixedDelayString = "${bamboo.adaptive-polling.tick:5000}")
     public void pollBuildStatus() {
         if (!schedulerEnabled) {
             return;
         }
+        // 기동 직후 사이클과 주기 사이클이 겹쳐 같은 빌드를 두 번 조회하지 않도록 함
+        if (!cycleLock.tryLock()) {
+            return;
+        }
+        try {
+            runPollCycle();
+        } finally {
+            cycleLock.unlock();
+        }
+    }
+
+    /**
+     * 기동 시 DB 의 활성 빌드로 추적 대상을 복원하고 즉시 한 사이클 폴링
+     * 폴링 일정/변경 캐시가 비어 있으므로 모든 빌드가 조회되고 변경분이 빠짐없이 반영됨
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeTracking() {
+        if (!schedulerEnabled) {
+            return;
+        }
+        // 담당 빌드를 정확히 나누도록 멤버십을 먼저 등록/갱신
+        clusterMembership.heartbeat();
+        long tracked = buildRepository.findActiveBuilds().stream()
+                .filter(build -> build.getBambooBuildKey() != null)
+                .count();
+        log.info("Resuming status tracking of {} active builds", tracked);
+        pollBuildStatus();
+    }
+
+    private void runPollCycle() {
+        // Bamboo 상태 조회 circuit breaker 가 열려 있으면 이번 사이클은 건너뜀
+        if (bambooTransport.isOpen(BambooOperation.STATUS)) {
+            log.debug("Bamboo status circuit is open, skipping poll cycle");
+            return;
+        }
+
+        // 일정상 폴링할 빌드가 없고 활성 빌드 목록도 최근에 읽었으면 DB 조회 생략
+        long tickAt = System.currentTimeMillis();
+        if (!pollSchedule.hasDue(tickAt) && tickAt - lastActiveRefreshMillis < activeRefreshIntervalMillis) {
+            return;
+        }
+        lastActiveRefreshMillis = tickAt;
 
         List<Build> activeBuilds = buildRepository.findActiveBuilds();
         if (activeBuilds.isEmpty()) {
+            pollSchedule.retainOnly(Set.of());
             return;
         }
 
-        log.debug("Polling {} active builds", activeBuilds.size());
-
-        for (Build build : activeBuilds) {
-            if (build.getBambooBuildKey() == null) {
+        // 클러스터 내에서 이 노드에 배정된 빌드만 폴링
+        List<Build> ownedBuilds = activeBuilds.stream()
+                .filter(build -> build.getBambooBuildKey() != null)
+                .filter(build -> clusterMembership.owns(build.getBambooBuildKey()))
+                .toList();
+        pollSchedule.retainOnly(ownedBuilds.stream().map(Build::getId).collect(Collectors.toSet()));
+
+        long now = System.currentTimeMillis();
+        OffsetDateTime pushCutoff = OffsetDateTime.now().minusSeconds(silenceWindowSeconds);
+        List<Build> dueBuilds = new ArrayList<>();
+        int suppressed = 0;
+        for (Build build : ownedBuilds) {
+            if (!pollSchedule.isDue(build.getId(), now)) {
                 continue;
             }
+            if (build.getLastPushAt() != null && build.getLastPushAt().isAfter(pushCutoff)) {
+                // 마지막 push + silence window 에 다시 판정 → 폴링 예정 시각당 한 번만 생략으로 집계
+                pollSchedule.deferUntil(build.getId(),
+                        build.getLastPushAt().plusSeconds(silenceWindowSeconds).toInstant().toEpochMilli());
+                suppressed++;
+            } else {
+                dueBuilds.add(build);
+            }
+        }
+        statusMetrics.recordSuppressed(suppressed);
+        if (dueBuilds.isEmpty()) {
+            return;
+        }
+
+        log.debug("Polling {}/{} owned builds ({} active)", dueBuilds.size(), ownedBuilds.size(), activeBuilds.size());
+
+        dueBuilds.forEach(build -> pollSchedule.markPolling(build.getId()));
+        Map<String, List<Build>> buildsByPlan = dueBuilds.stream()
+                .collect(Collectors.groupingBy(build -> BambooClient.planKeyOf(build.getBambooBuildKey()),
+                        LinkedHashMap::new, Collectors.toList()));
+        List<PolledStatus> polled = Flux.fromIterable(buildsByPlan.values())
+                .flatMap(this::fetchPlanStatuses, pollConcurrency)
+                .collectList()
+                .block();
+        if (polled == null || polled.isEmpty()) {
+            return;
+        }
+        statusMetrics.recordPolls(polled.size());
+
+        // 직전 반영 이후 바뀐 응답만 DB 에 반영 (변화 없는 응답은 일정만 갱신)
+        List<PolledStatus> changed = new ArrayList<>();
+        for (PolledStatus result : polled) {
+            recordQueueWait(result.build(), result.status());
+            if (statusCache.isUnchanged(result.build().getBambooBuildKey(), result.status())) {
+                pollSchedule.recordPoll(result.build(), result.status(), null, false);
+            } else {
+                changed.add(result);
+            }
+        }
+        statusMetrics.recordDiff(changed.size(), polled.size() - changed.size());
+
+        applyAndRemember(changed);
+    }
+
+    // build 는 폴링 시점의 스냅샷 (반영 시 트랜잭션 안에서 다시 로드)
+    private record PolledStatus(Build build, BambooBuildStatus status) {}
 
-            pollSingleBuild(build);
+    // Bamboo 에이전트 대기 시간 (동시성 제어 혼잡 신호)
+    private void recordQueueWait(Build build, BambooBuildStatus status) {
+        if (status.isQueued()) {
+            OffsetDateTime since = build.getStartedAt() != null ? build.getStartedAt() : build.getCreatedAt();
+            if (since != null) {
+                concurrencyController.recordQueueWait(Duration.between(since, OffsetDateTime.now()).toSeconds());
+            }
         }
     }
 
-    private void pollSingleBuild(Build build) {
-        bambooClient.getBuildStatus(build.getBambooBuildKey())
-                .subscribe(
-                        status -> processBuildStatus(build, status),
-                        error -> log.error("Failed to poll build {}: {}", build.getId(), error.getMessage())
-                );
+    private void applyAndRemember(List<PolledStatus> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        List<PolledStatus> applied = transactionTemplate.execute(tx -> applyPolledStatuses(results));
+        if (applied != null) {
+            applied.forEach(result -> statusCache.remember(result.build().getBambooBuildKey(), result.status()));
+        }
     }
 
-    @Transactional
-    public void processBuildStatus(Build build, BambooBuildStatus status) {
+    /**
+     * 같은 플랜의 빌드 상태를 한 번의 요청으로 조회
+     * 플랜의 최근 결과 목록에 없는 빌드(목록 범위 밖)만 개별 조회로 보완
+     */
+    private Flux<PolledStatus> fetchPlanStatuses(List<Build> builds) {
+        if (builds.size() == 1) {
+            return fetchStatus(builds.get(0)).flux();
+        }
+
+        String planKey = BambooClient.planKeyOf(builds.get(0).getBambooBuildKey());
+        Map<String, Build> buildsByKey = builds.stream()
+                .collect(Collectors.toMap(Build::getBambooBuildKey, build -> build, (a, b) -> a));
+
+        BambooPriority priority = builds.stream().anyMatch(BuildStatusPollingService::isRelease)
+                ? BambooPriority.HIGH
+                : BambooPriority.NORMAL;
+        return bambooClient.getPlanResults(planKey, planResultWindow(builds), priority)
+                .timeout(Duration.ofSeconds(pollTimeoutSeconds))
+                .map(BambooResultList::getResultList)
+                .onErrorResume(error -> {
+                    log.warn("Failed to poll plan {}, falling back to per-build polls: {}", planKey, error.getMessage());
+                    return Mono.just(List.of());
+                })
+                .flatMapMany(results -> {
+                    Map<String, Build> missing = new HashMap<>(buildsByKey);
+                    List<PolledStatus> found = new ArrayList<>();
+                    for (BambooBuildStatus status : results) {
+                        Build build = status.getKey() != null ? missing.remove(status.getKey()) : null;
+                        if (build != null) {
+                            found.add(new PolledStatus(build, status));
+                        }
+                    }
+                    return Flux.fromIterable(found)
+                            .concatWith(Flux.fromIterable(missing.values()).concatMap(this::fetchStatus));
+                });
+    }
+
+    // 가장 오래된 폴링 대상 빌드까지 포함하도록 결과 수 결정
+    private int planResultWindow(List<Build> builds) {
+        IntSummaryStatistics numbers = builds.stream()
+                .map(Build::getBambooBuildKey)
+                .map(key -> key.substring(key.lastIndexOf('-') + 1))
+                .filter(number -> !number.isEmpty() && number.chars().allMatch(Character::isDigit))
+                .mapToInt(Integer::parseInt)
+                .summaryStatistics();
+        int span = numbers.getCount() > 0 ? numbers.getMax() - numbers.getMin() + 1 : builds.size();
+        return Math.min(planResultWindowMax, span + PLAN_RESULT_WINDOW_SLACK);
+    }
+
+    private Mono<PolledStatus> fetchStatus(Build build) {
+        BambooPriority priority = isRelease(build) ? BambooPriority.HIGH : BambooPriority.NORMAL;
+        return bambooClient.getBuildStatus(build.getBambooBuildKey(), priority)
+                .timeout(Duration.ofSeconds(pollTimeoutSeconds))
+                .map(status -> new PolledStatus(build, status))
+                .onErrorResume(error -> {
+                    log.error("Failed to poll build {}: {}", build.getId(), error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // Layer 가 함께 로드된 빌드에서만 호출
+    private static boolean isRelease(Build build) {
+        return "release".equals(build.getLayer().getType());
+    }
+
+    /**
+     * 한 사이클의 폴링 결과 일괄 반영
+     * 빌드와 스테이지를 각각 한 번의 쿼리로 읽고, 변경된 엔티티는 커밋 시 한꺼번에 flush
+     *
+     * @return 반영에 성공한 결과
+     */
+    private List<PolledStatus> applyPolledStatuses(List<PolledStatus> polled) {
+        Set<String> buildIds = polled.stream().map(result -> result.build().getId()).collect(Collectors.toSet());
+        Map<String, Build> builds = buildRepository.findAllById(buildIds).stream()
+                .collect(Collectors.toMap(Build::getId, build -> build));
+        Map<String, List<BuildStageResult>> stagesByBuild = stageResultRepository.findByBuildIdIn(buildIds).stream()
+                .collect(Collectors.groupingBy(stage -> stage.getBuild().getId()));
+
+        List<PolledStatus> applied = new ArrayList<>();
+        for (PolledStatus result : polled) {
+            Build build = builds.get(result.build().getId());
+            // 폴링 중 webhook 등으로 이미 완료된 빌드는 건너뜀
+            if (build == null || !("pending".equals(build.getStatus()) || "running".equals(build.getStatus()))) {
+                continue;
+            }
+            if (processBuildStatus(build, result.status(), stagesByBuild.getOrDefault(build.getId(), List.of()))) {
+                applied.add(result);
+            }
+        }
+        return applied;
+    }
+
+    private boolean processBuildStatus(Build build, BambooBuildStatus status, List<BuildStageResult> stages) {
         try {
             // 스테이지별 상태 업데이트
             if (status.getStages() != null && status.getStages().getStage() != null) {
                 for (BambooBuildStatus.Stage bambooStage : status.getStages().getStage()) {
-                    updateStageFromBamboo(build, bambooStage);
+                    updateStageFromBamboo(build, stages, bambooStage);
                 }
             }
 
@@ -82,18 +339,25 @@ public class BuildStatusPollingService {
             if (status.isFinished()) {
                 handleBuildComplete(build, status);
             }
+
+            long nextPollMillis = pollSchedule.recordPoll(build, status, stages, true);
+            log.trace("Next poll of build {} in {} ms", build.getId(), nextPollMillis);
+            return true;
         } catch (Exception e) {
             log.error("Error processing build status for {}: {}", build.getId(), e.getMessage(), e);
+            return false;
         }
     }
 
-    private void updateStageFromBamboo(Build build, BambooBuildStatus.Stage bambooStage) {
+    private void updateStageFromBamboo(Build build, List<BuildStageResult> stages, BambooBuildStatus.Stage bambooStage) {
         String stageName = mapBambooStageName(bambooStage.getName());
         if (stageName == null) {
             return;
         }
 
-        stageResultRepository.findByBuildIdAndStageName(build.getId(), stageName)
+        stages.stream()
+                .filter(stage -> stageName.equals(stage.getStageName()))
+                .findFirst()
                 .ifPresent(stage -> {
                     String newStatus = mapBambooState(bambooStage.getState());
 
@@ -104,7 +368,6 @@ public class BuildStatusPollingService {
                             Map<String, Object> result = extractStageResult(bambooStage, stageName);
                             stage.complete("success".equals(newStatus), result);
                         }
-                        stageResultRepository.save(stage);
                         log.debug("Stage {} updated to {} for build {}", stageName, newStatus, build.getId());
                     }
                 });
@@ -144,16 +407,7 @@ public class BuildStatusPollingService {
                 result.put("compile_success", "Successful".equalsIgnoreCase(stage.getState()));
                 // Bamboo에서 추가 정보 파싱
             }
-            case "SAM" -> {
-                result.put("score", 0);  // 실제 값은 Bamboo 응답에서 추출
-                result.put("issues", List.of());
-            }
-            case "Coverity" -> {
-                result.put("defect_count", 0);  // 실제 값은 Bamboo 응답에서 추출
-                result.put("critical", 0);
-                result.put("high", 0);
-                result.put("medium", 0);
-            }
+            // SAM / Coverity 결과는 ReportIngestionService 가 리포트 아티팩트에서 채움
         }
 
         return result;
@@ -192,6 +446,7 @@ public class BuildStatusPollingService {
         }
 
         buildRepository.save(build);
+        queueNotifier.publish("build_completed");
         log.info("Build {} completed with status: {}", build.getId(), buildStatus);
     }
 
@@ -237,6 +492,10 @@ public class BuildStatusPollingService {
             return;
         }
 
+        build.recordPush();
+        buildRepository.save(build);
+        statusMetrics.recordPush();
+
         stageResultRepository.findByBuildIdAndStageName(build.getId(), mappedStageName)
                 .ifPresent(stage -> {
                     stage.handleBambooResponse(payload);
@@ -252,7 +511,100 @@ public class BuildStatusPollingService {
                         String finalStatus = stageResultRepository.calculateBuildStatus(build.getId());
                         build.complete(finalStatus);
                         buildRepository.save(build);
+                        queueNotifier.publish("build_completed");
                     }
                 });
     }
+
+    /**
+     * Webhook을 통한 빌드 상태 수신 처리
+     * 빌드 완료 알림이면 silence window 를 해제하고, 담당 노드면 다음 폴링 틱에서 바로 조회하도록 일정을 당김
+     * - 조회/반영은 담당 노드의 폴링 사이클에서만 수행 (요청 스레드를 막지 않고, 노드 간 중복 반영 없음)
+     * - 다른 노드가 받은 알림은 silence window 해제만 하고 담당 노드의 폴링 일정에 맡김
+     */
+    public void handleBuildWebhook(String bambooBuildKey, String lifeCycleState) {
+        Build build = buildRepository.findWithLayerByBambooBuildKey(bambooBuildKey)
+                .orElse(null);
+
+        if (build == null) {
+            log.warn("Received webhook for unknown build: {}", bambooBuildKey);
+            return;
+        }
+
+        boolean finished = "Finished".equalsIgnoreCase(lifeCycleState);
+        transactionTemplate.executeWithoutResult(tx -> buildRepository.findById(build.getId())
+                .ifPresent(finished ? Build::clearPush : Build::recordPush));
+        statusMetrics.recordPush();
+
+        if (finished && clusterMembership.owns(bambooBuildKey)) {
+            pollSchedule.markDue(build.getId());
+        }
+    }
+
+    /**
+     * 실행 중인 빌드 취소
+     * Bamboo 에 중지를 요청한 뒤 빌드와 미완료 스테이지를 cancelled/skipped 로 정리
+     * 아직 트리거 전이면 outbox 항목과 큐 아이템도 취소 (전송 중이었으면 응답 반영 시 중지)
+     *
+     * @throws BuildNotCancellableException 이미 종료된 빌드 (409)
+     * @throws BambooUnavailableException    Bamboo 중지 요청 실패 (503, 빌드는 그대로 유지)
+     */
+    public Build cancelBuild(String buildId) {
+        Build build = buildRepository.findById(buildId)
+                .orElseThrow(() -> new IllegalArgumentException("Build not found: " + buildId));
+        requireCancellable(build);
+
+        String stoppedKey = build.getBambooBuildKey();
+        if (stoppedKey != null) {
+            stopBambooBuild(stoppedKey);
+        }
+
+        Build cancelled = transactionTemplate.execute(tx -> {
+            // outbox 행을 먼저 잠가 동시에 진행 중인 트리거 결과 반영과 순서를 정함
+            itemProcessor.cancelTrigger(buildId);
+            Build current = buildRepository.findById(buildId).orElseThrow();
+            requireCancellable(current);
+            stageResultRepository.findByBuildIdOrderByStageOrder(buildId).stream()
+                    .filter(stage -> "pending".equals(stage.getStatus()) || "running".equals(stage.getStatus()))
+                    .forEach(BuildStageResult::skip);
+            current.complete("cancelled");
+            return buildRepository.save(current);
+        });
+
+        // 조회 이후 트리거가 반영되어 Bamboo 키가 생긴 경우 (이미 취소가 커밋됐으므로 실패는 로그만 남김)
+        String triggeredKey = cancelled.getBambooBuildKey();
+        if (triggeredKey != null && !triggeredKey.equals(stoppedKey)) {
+            statusCache.forget(triggeredKey);
+            bambooClient.stopBuild(triggeredKey)
+                    .subscribe(null, error -> log.warn("Failed to stop cancelled build {}: {}",
+                            triggeredKey, error.getMessage()));
+        }
+        queueNotifier.publish("build_cancelled");
+        log.info("Build {} cancelled", buildId);
+        return cancelled;
+    }
+
+    private static void requireCancellable(Build build) {
+        if (!"pending".equals(build.getStatus()) && !"running".equals(build.getStatus())) {
+            throw new BuildNotCancellableException("Cannot cancel build in status: " + build.getStatus());
+        }
+    }
+
+    /**
+     * 취소 전 Bamboo 빌드 중지
+     * Bamboo 에 없는 빌드(404)는 이미 끝난 것으로 보고 로컬 취소를 진행, 그 밖의 실패는 취소하지 않고 503
+     */
+    private void stopBambooBuild(String bambooBuildKey) {
+        try {
+            bambooClient.stopBuild(bambooBuildKey)
+                    .timeout(Duration.ofSeconds(pollTimeoutSeconds))
+                    .block();
+        } catch (WebClientResponseException.NotFound e) {
+            log.info("Bamboo build {} is no longer queued or running, cancelling locally", bambooBuildKey);
+        } catch (RuntimeException e) {
+            throw new BambooUnavailableException("Failed to stop Bamboo build " + bambooBuildKey
+                    + ": " + e.getMessage(), e);
+        }
+        statusCache.forget(bambooBuildKey);
+    }
 }
@@ -0,0 +1,129 @@
+package com.mintportal.scheduler;
+
+import com.mintportal.bamboo.BambooRateLimiter;
+import com.mintportal.repository.SchedulerMemberRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * 스케줄러 클러스터 멤버십 / 빌드 폴링 샤딩
+ * - 각 노드는 scheduler_members 에 heartbeat 를 기록하고 live 노드 목록을 읽어 해시 링을 구성
+ * - bambooBuildKey 를 consistent hashing 으로 하나의 노드에 배정하여 빌드당 한 노드만 폴링
+ * - 노드 합류/이탈 시 다음 heartbeat 에서 링을 재구성 (이동하는 키는 해당 노드 몫뿐)
+ * - scheduler.enabled=false 인 노드(API 전용)는 등록하지 않으므로 링과 rate limit 분배에서 제외
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterMembership {
+
+    private final SchedulerMemberRepository memberRepository;
+    private final SchedulerNode schedulerNode;
+    private final BambooRateLimiter rateLimiter;
+
+    @Value("${scheduler.enabled:true}")
+    private boolean schedulerEnabled;
+
+    // 이 시간 동안 heartbeat 가 없으면 죽은 노드로 간주
+    @Value("${scheduler.membership.live-timeout-seconds:35}")
+    private long liveTimeoutSeconds;
+
+    @Value("${scheduler.membership.virtual-nodes:64}")
+    private int virtualNodes;
+
+    private volatile List<String> liveNodes = List.of();
+    private volatile NavigableMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * 등록/heartbeat 및 live 노드 갱신 (기동 직후 1회 실행 후 주기 실행)
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${scheduler.membership.heartbeat-interval:10000}")
+    @Transactional
+    public void heartbeat() {
+        if (!schedulerEnabled) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        memberRepository.upsertHeartbeat(schedulerNode.getNodeId(), now);
+
+        OffsetDateTime liveSince = now.minusSeconds(liveTimeoutSeconds);
+        List<String> nodes = memberRepository.findLiveNodeIds(liveSince);
+        if (!nodes.equals(liveNodes)) {
+            log.info("Scheduler members changed: {} -> {}, rebalancing build polling", liveNodes, nodes);
+            ring = buildRing(nodes);
+            liveNodes = List.copyOf(nodes);
+            rateLimiter.setClusterSize(nodes.size());
+        }
+
+        // 오래 전에 죽은 노드 행 정리 (live 판정과 무관, 테이블 정리용)
+        memberRepository.deleteStale(now.minusSeconds(liveTimeoutSeconds * 10));
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!schedulerEnabled) {
+            return;
+        }
+        try {
+            memberRepository.deleteById(schedulerNode.getNodeId());
+            log.info("Scheduler node {} left the cluster", schedulerNode.getNodeId());
+        } catch (Exception e) {
+            log.debug("Failed to deregister node {}: {}", schedulerNode.getNodeId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 이 노드가 해당 키(bambooBuildKey)의 담당인지 여부
+     * 멤버십을 아직 읽지 못했으면 단일 노드로 간주하여 모두 담당, 스케줄러 비활성 노드는 아무것도 담당하지 않음
+     */
+    public boolean owns(String key) {
+        if (!schedulerEnabled) {
+            return false;
+        }
+        NavigableMap<Long, String> current = ring;
+        if (current.isEmpty()) {
+            return true;
+        }
+        return schedulerNode.getNodeId().equals(ownerOf(current, key));
+    }
+
+    public List<String> getLiveNodes() {
+        return liveNodes;
+    }
+
+    private NavigableMap<Long, String> buildRing(List<String> nodes) {
+        NavigableMap<Long, String> newRing = new TreeMap<>();
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                newRing.put(hash(node + "#" + i), node);
+            }
+        }
+        return newRing;
+    }
+
+    private static String ownerOf(NavigableMap<Long, String> ring, String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.mintportal.scheduler;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fair-share 스케줄링 가중치 설정
+ * TaskGroup → Project → Layer 각 단계별 가중치 (미지정 시 default-weight)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "scheduler.fair-share")
+@Getter
+@Setter
+public class FairShareConfig {
+
+    private boolean enabled = true;
+    private double defaultWeight = 1.0;
+
+    // fair-share 비교를 위해 잠그지 않고 읽는 대기 아이템 수 (선택된 아이템만 SKIP LOCKED 로 잠금)
+    private int candidateWindow = 500;
+
+    private Map<String, Double> taskGroupWeights = new HashMap<>();  // taskGroupId -> weight
+    private Map<String, Double> projectWeights = new HashMap<>();    // projectId -> weight
+    private Map<String, Double> layerTypeWeights = new HashMap<>();  // release, layer, private -> weight
+
+    public double taskGroupWeight(String taskGroupId) {
+        return positive(taskGroupWeights.get(taskGroupId));
+    }
+
+    public double projectWeight(String projectId) {
+        return positive(projectWeights.get(projectId));
+    }
+
+    public double layerTypeWeight(String layerType) {
+        return positive(layerTypeWeights.get(layerType));
+    }
+
+    private double positive(Double weight) {
+        return weight != null && weight > 0 ? weight : defaultWeight;
+    }
+}
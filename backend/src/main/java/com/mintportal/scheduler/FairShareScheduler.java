@@ -0,0 +1,198 @@
+package com.mintportal.scheduler;
+
+import com.mintportal.entity.BuildQueue;
+import com.mintportal.entity.Layer;
+import com.mintportal.entity.Project;
+import com.mintportal.repository.BuildQueueRepository;
+import com.mintportal.repository.BuildRepository;
+import com.mintportal.repository.LayerRepository;
+import com.mintportal.repository.ProjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 계층형 Fair-share 스케줄러
+ * - TaskGroup → Project → Layer 순으로 (사용량 / 가중치)가 가장 낮은 대상을 선택
+ * - 대기 아이템이 있는 대상끼리만 경쟁하므로 유휴 대상의 몫은 다른 대상이 빌려 씀
+ * - 같은 비율이면 priority 높은 순, 오래된 순 (기존 정렬 기준)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FairShareScheduler {
+
+    private final FairShareConfig config;
+    private final BuildRepository buildRepository;
+    private final BuildQueueRepository buildQueueRepository;
+    private final ProjectRepository projectRepository;
+    private final LayerRepository layerRepository;
+
+    /**
+     * 후보 중 slots 개를 fair-share 순서로 선택
+     *
+     * @param candidates priority DESC, queuedAt ASC 로 정렬된 대기 아이템
+     * @param slots 선택할 개수
+     */
+    public List<BuildQueue> select(List<BuildQueue> candidates, int slots) {
+        if (!config.isEnabled() || candidates.size() <= slots) {
+            return candidates.subList(0, Math.min(slots, candidates.size()));
+        }
+
+        // 프로젝트/레이어를 한 번에 로드 (이후 getTaskGroup()/getType() 은 영속성 컨텍스트에서 조회)
+        Set<String> projectIds = new HashSet<>();
+        Set<String> layerIds = new HashSet<>();
+        for (BuildQueue item : candidates) {
+            projectIds.add(item.getProject().getId());
+            layerIds.add(item.getLayer().getId());
+        }
+        Map<String, Project> projects = new HashMap<>();
+        projectRepository.findAllById(projectIds).forEach(p -> projects.put(p.getId(), p));
+        Map<String, Layer> layers = new HashMap<>();
+        layerRepository.findAllById(layerIds).forEach(l -> layers.put(l.getId(), l));
+
+        // 현재 사용량 (진행 중인 빌드 수)
+        Map<String, Double> usage = new HashMap<>();
+        for (Object[] row : buildRepository.countActiveBuildsByTenant()) {
+            double count = ((Number) row[3]).doubleValue();
+            usage.merge(tgKey((String) row[0]), count, Double::sum);
+            usage.merge(projectKey((String) row[1]), count, Double::sum);
+            usage.merge(layerKey((String) row[2]), count, Double::sum);
+        }
+
+        // TaskGroup -> Project -> Layer -> 대기 아이템 (원래 순서 유지)
+        Map<String, Map<String, Map<String, Deque<BuildQueue>>>> tree = new LinkedHashMap<>();
+        Map<BuildQueue, Integer> order = new IdentityHashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            BuildQueue item = candidates.get(i);
+            order.put(item, i);
+            Project project = projects.get(item.getProject().getId());
+            tree.computeIfAbsent(project.getTaskGroup().getId(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(project.getId(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(item.getLayer().getId(), k -> new ArrayDeque<>())
+                    .add(item);
+        }
+
+        List<BuildQueue> selected = new ArrayList<>(slots);
+        while (selected.size() < slots && !tree.isEmpty()) {
+            String tgId = pickLowest(tree, order, usage,
+                    FairShareScheduler::tgKey, config::taskGroupWeight);
+            Map<String, Map<String, Deque<BuildQueue>>> projectTree = tree.get(tgId);
+
+            String projectId = pickLowest(projectTree, order, usage,
+                    FairShareScheduler::projectKey, config::projectWeight);
+            Map<String, Deque<BuildQueue>> layerTree = projectTree.get(projectId);
+
+            String layerId = pickLowest(layerTree, order, usage,
+                    FairShareScheduler::layerKey, id -> config.layerTypeWeight(layers.get(id).getType()));
+            Deque<BuildQueue> items = layerTree.get(layerId);
+
+            selected.add(items.poll());
+            usage.merge(tgKey(tgId), 1.0, Double::sum);
+            usage.merge(projectKey(projectId), 1.0, Double::sum);
+            usage.merge(layerKey(layerId), 1.0, Double::sum);
+
+            if (items.isEmpty()) layerTree.remove(layerId);
+            if (layerTree.isEmpty()) projectTree.remove(projectId);
+            if (projectTree.isEmpty()) tree.remove(tgId);
+        }
+
+        return selected;
+    }
+
+    /**
+     * (사용량 / 가중치)가 가장 낮은 자식 선택, 동률이면 가장 앞선 대기 아이템을 가진 자식
+     */
+    private <T> String pickLowest(Map<String, T> children, Map<BuildQueue, Integer> order,
+                                  Map<String, Double> usage,
+                                  Function<String, String> usageKey,
+                                  ToDoubleFunction<String> weight) {
+        String best = null;
+        double bestRatio = Double.MAX_VALUE;
+        int bestOrder = Integer.MAX_VALUE;
+
+        for (Map.Entry<String, T> entry : children.entrySet()) {
+            String id = entry.getKey();
+            double ratio = usage.getOrDefault(usageKey.apply(id), 0.0) / weight.applyAsDouble(id);
+            int headOrder = headOrder(entry.getValue(), order);
+            if (ratio < bestRatio || (ratio == bestRatio && headOrder < bestOrder)) {
+                best = id;
+                bestRatio = ratio;
+                bestOrder = headOrder;
+            }
+        }
+        return best;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int headOrder(Object node, Map<BuildQueue, Integer> order) {
+        if (node instanceof Deque<?> deque) {
+            return order.get((BuildQueue) deque.peek());
+        }
+        int min = Integer.MAX_VALUE;
+        for (Object child : ((Map<String, Object>) node).values()) {
+            min = Math.min(min, headOrder(child, order));
+        }
+        return min;
+    }
+
+    /**
+     * 대상별 진행/대기 현황 (getQueueStatus 용)
+     */
+    public Map<String, Object> getTenantStatus() {
+        Map<String, Map<String, Object>> taskGroups = new TreeMap<>();
+        Map<String, Map<String, Object>> projectStats = new TreeMap<>();
+        Map<String, Map<String, Object>> layerStats = new TreeMap<>();
+
+        accumulate(buildRepository.countActiveBuildsByTenant(), "running", taskGroups, projectStats, layerStats);
+        accumulate(buildQueueRepository.countWaitingBuildsByTenant(), "waiting", taskGroups, projectStats, layerStats);
+
+        taskGroups.forEach((id, stat) -> stat.put("weight", config.taskGroupWeight(id)));
+        projectStats.forEach((id, stat) -> stat.put("weight", config.projectWeight(id)));
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", config.isEnabled());
+        status.put("taskGroups", taskGroups);
+        status.put("projects", projectStats);
+        status.put("layers", layerStats);
+        return status;
+    }
+
+    private void accumulate(List<Object[]> rows, String field,
+                            Map<String, Map<String, Object>> taskGroups,
+                            Map<String, Map<String, Object>> projectStats,
+                            Map<String, Map<String, Object>> layerStats) {
+        for (Object[] row : rows) {
+            long count = ((Number) row[3]).longValue();
+            increment(taskGroups, (String) row[0], field, count);
+            increment(projectStats, (String) row[1], field, count);
+            increment(layerStats, (String) row[2], field, count);
+        }
+    }
+
+    private void increment(Map<String, Map<String, Object>> stats, String id, String field, long count) {
+        Map<String, Object> stat = stats.computeIfAbsent(id, k -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("running", 0L);
+            m.put("waiting", 0L);
+            return m;
+        });
+        stat.put(field, (Long) stat.get(field) + count);
+    }
+
+    private static String tgKey(String id) {
+        return "tg:" + id;
+    }
+
+    private static String projectKey(String id) {
+        return "project:" + id;
+    }
+
+    private static String layerKey(String id) {
+        return "layer:" + id;
+    }
+}
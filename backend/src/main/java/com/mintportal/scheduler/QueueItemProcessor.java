@@ -0,0 +1,299 @@
+package com.mintportal.scheduler;
+
+import com.mintportal.bamboo.BambooBuildResult;
+import com.mintportal.bamboo.BambooParamsEncoder;
+import com.mintportal.bamboo.BambooParamsGenerator;
+import com.mintportal.entity.*;
+import com.mintportal.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * 큐 아이템 단위 처리
+ * - 각 메서드는 아이템 하나만 다루는 짧은 트랜잭션으로 실행
+ * - 한 아이템의 실패는 해당 아이템의 Build / BuildRequest / 스테이지 행만 롤백
+ * - Bamboo 호출은 outbox 를 통해 트랜잭션 커밋 후 BambooOutboxRelay 가 수행
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueItemProcessor {
+
+    private final BuildQueueRepository buildQueueRepository;
+    private final BuildRequestRepository buildRequestRepository;
+    private final BuildRepository buildRepository;
+    private final BuildStageResultRepository stageResultRepository;
+    private final BambooOutboxRepository outboxRepository;
+
+    private final BambooParamsGenerator paramsGenerator;
+    private final BambooParamsEncoder paramsEncoder;
+    private final BuildNumberAllocator buildNumberAllocator;
+    private final RetryPolicyConfig retryPolicy;
+    private final BuildQueueNotifier queueNotifier;
+
+    /**
+     * 큐 아이템 준비 - BuildRequest, Build, 스테이지 결과, Bamboo outbox 항목 생성
+     * outbox 항목은 같은 트랜잭션에서 커밋되므로 롤백 시 Bamboo 호출도 발생하지 않음
+     *
+     * @return outbox 항목 ID
+     */
+    @Transactional
+    public String prepare(String queueId) {
+        BuildQueue queueItem = buildQueueRepository.findById(queueId)
+                .orElseThrow(() -> new IllegalArgumentException("Queue item not found: " + queueId));
+
+        log.info("Processing queue item: {} (project: {}, layer: {})",
+                queueItem.getId(),
+                queueItem.getProject().getId(),
+                queueItem.getLayer().getId());
+
+        if (!"processing".equals(queueItem.getQueueStatus())) {
+            queueItem.startProcessing();
+            buildQueueRepository.save(queueItem);
+        }
+
+        Project project = queueItem.getProject();
+        Layer layer = queueItem.getLayer();
+        User requester = queueItem.getRequester();
+
+        // Bamboo 파라미터 생성
+        Map<String, Object> bambooParams = paramsGenerator.generateParams(
+                project,
+                layer,
+                requester,
+                queueItem.getScmOverride(),
+                queueItem.getBuildOverride()
+        );
+
+        // BuildRequest 생성 (전송 파라미터 기록)
+        BuildRequest request = BuildRequest.builder()
+                .queue(queueItem)
+                .project(project)
+                .layer(layer)
+                .requestParams(bambooParams)
+                .bambooPlanKey(project.getPlanId())
+                .requestStatus("sent")
+                .build();
+        buildRequestRepository.save(request);
+
+        // 빌드 스냅샷 생성
+        Map<String, Object> buildSnapshot = paramsGenerator.createBuildSnapshot(
+                project, layer,
+                queueItem.getScmOverride(),
+                queueItem.getBuildOverride()
+        );
+
+        // Build 엔티티 생성
+        BuildNumberAllocator.BuildNumbers numbers =
+                buildNumberAllocator.allocate(project.getId(), layer.getId());
+
+        Build build = Build.builder()
+                .request(request)
+                .project(project)
+                .layer(layer)
+                .round(numbers.round())
+                .buildNumber(numbers.buildNumber())
+                .status("pending")
+                .buildSnapshot(buildSnapshot)
+                .triggeredBy(requester)
+                .triggerType(queueItem.getReqMethod())
+                .build();
+        buildRepository.save(build);
+
+        // Build Stage Results 생성 (Build, SAM, Coverity)
+        createStageResults(build, layer);
+
+        // Bamboo 트리거 outbox 기록 (relay 가 커밋 후 전송)
+        BambooOutbox outbox = BambooOutbox.builder()
+                .queueId(queueItem.getId())
+                .requestId(request.getId())
+                .buildId(build.getId())
+                .planKey(request.getBambooPlanKey())
+                .params(paramsEncoder.toStringParams(bambooParams))
+                .priority("release".equals(layer.getType()) ? "high" : "normal")
+                .build();
+        outboxRepository.save(outbox);
+
+        return outbox.getId();
+    }
+
+    /**
+     * 빌드 스테이지 결과 초기 생성
+     */
+    private void createStageResults(Build build, Layer layer) {
+        List<BuildStageResult> stages = new ArrayList<>();
+
+        // Build stage (항상 활성)
+        stages.add(createStageResult(build, "Build", 1,
+                layer.getBuildEnabled() != null && layer.getBuildEnabled()));
+
+        // SAM stage
+        stages.add(createStageResult(build, "SAM", 2,
+                layer.getSamEnabled() != null && layer.getSamEnabled()));
+
+        // Coverity stage
+        stages.add(createStageResult(build, "Coverity", 3,
+                layer.getCoverityEnabled() != null && layer.getCoverityEnabled()));
+
+        stageResultRepository.saveAll(stages);
+    }
+
+    private BuildStageResult createStageResult(Build build, String stageName, int order, boolean enabled) {
+        return BuildStageResult.builder()
+                .build(build)
+                .stageName(stageName)
+                .stageOrder(order)
+                .status(enabled ? "pending" : "skipped")
+                .build();
+    }
+
+    /**
+     * Bamboo 트리거 성공 처리 (같은 outbox 항목의 중복 응답은 무시)
+     *
+     * @return 트리거 전후로 빌드가 취소되어 Bamboo 빌드를 중지해야 하면 false
+     */
+    @Transactional
+    public boolean markTriggered(String outboxId, BambooBuildResult result) {
+        BambooOutbox outbox = outboxRepository.lockById(outboxId).orElse(null);
+        if (outbox == null || "sent".equals(outbox.getStatus())) {
+            return true;
+        }
+        Build build = buildRepository.findById(outbox.getBuildId()).orElse(null);
+        if ("cancelled".equals(outbox.getStatus()) || build == null || !"pending".equals(build.getStatus())) {
+            // 전송 중에 취소된 빌드: 상태는 되돌리지 않고 Bamboo 키만 기록
+            if (build != null && build.getBambooBuildKey() == null) {
+                build.setBambooBuildKey(result.getBuildResultKey());
+                build.setBambooBuildNumber(result.getBuildNumber());
+                buildRepository.save(build);
+            }
+            log.info("Build {} was cancelled while being triggered, Bamboo build {} will be stopped",
+                    outbox.getBuildId(), result.getBuildResultKey());
+            return false;
+        }
+        outbox.markSent();
+        outboxRepository.save(outbox);
+
+        log.info("Bamboo build triggered successfully: {} for build {}",
+                result.getBuildResultKey(), outbox.getBuildId());
+
+        // Request 업데이트
+        buildRequestRepository.findById(outbox.getRequestId()).ifPresent(request -> {
+            request.markAccepted(result.getBuildResultKey());
+            buildRequestRepository.save(request);
+        });
+
+        // Build 업데이트
+        build.setBambooBuildKey(result.getBuildResultKey());
+        build.setBambooBuildNumber(result.getBuildNumber());
+        build.start();
+        buildRepository.save(build);
+
+        // Queue 완료 처리
+        buildQueueRepository.findById(outbox.getQueueId()).ifPresent(queueItem -> {
+            queueItem.markCompleted();
+            buildQueueRepository.save(queueItem);
+        });
+        queueNotifier.publish("completed");
+
+        // 첫 번째 스테이지 시작
+        stageResultRepository.findByBuildIdAndStageName(outbox.getBuildId(), "Build")
+                .ifPresent(stage -> {
+                    stage.start();
+                    stageResultRepository.save(stage);
+                });
+        return true;
+    }
+
+    /**
+     * 트리거 전 빌드 취소 - outbox 항목과 큐 아이템을 취소 상태로 (호출자 트랜잭션에서 실행)
+     * 대기 중인 항목은 전송되지 않고, 전송 중인 항목은 markTriggered 에서 Bamboo 빌드를 중지
+     */
+    @Transactional
+    public void cancelTrigger(String buildId) {
+        outboxRepository.lockByBuildId(buildId).ifPresent(outbox -> {
+            if (!"pending".equals(outbox.getStatus()) && !"sending".equals(outbox.getStatus())) {
+                return;
+            }
+            outbox.markCancelled();
+            outboxRepository.save(outbox);
+
+            buildRequestRepository.findById(outbox.getRequestId()).ifPresent(request -> {
+                request.markError("Cancelled before trigger");
+                buildRequestRepository.save(request);
+            });
+            buildQueueRepository.findById(outbox.getQueueId()).ifPresent(queueItem -> {
+                queueItem.markCancelled();
+                buildQueueRepository.save(queueItem);
+            });
+        });
+    }
+
+    /**
+     * Bamboo 트리거 실패 처리
+     */
+    @Transactional
+    public void markTriggerFailed(String outboxId, String errorMessage) {
+        markTriggerFailed(outboxId, errorMessage, true);
+    }
+
+    /**
+     * Bamboo 트리거 실패 처리
+     *
+     * @param retryable false 면 큐 아이템을 재시도하지 않고 바로 failed (플랜이 없거나 비활성인 경우 등)
+     */
+    @Transactional
+    public void markTriggerFailed(String outboxId, String errorMessage, boolean retryable) {
+        BambooOutbox outbox = outboxRepository.findById(outboxId).orElse(null);
+        if (outbox == null || !"sending".equals(outbox.getStatus())) {
+            return;
+        }
+        outbox.markFailed(errorMessage);
+        outboxRepository.save(outbox);
+
+        log.error("Failed to trigger Bamboo build for build {}: {}", outbox.getBuildId(), errorMessage);
+
+        // Request 에러 처리
+        buildRequestRepository.findById(outbox.getRequestId()).ifPresent(request -> {
+            request.markError(errorMessage);
+            buildRequestRepository.save(request);
+        });
+
+        // Build 실패 처리
+        buildRepository.findById(outbox.getBuildId()).ifPresent(build -> {
+            build.complete("failed");
+            buildRepository.save(build);
+        });
+
+        // Queue 재시도 처리
+        if (retryable) {
+            markFailed(outbox.getQueueId(), errorMessage);
+        } else {
+            buildQueueRepository.findById(outbox.getQueueId()).ifPresent(queueItem -> {
+                queueItem.markFailedWithoutRetry(errorMessage);
+                buildQueueRepository.save(queueItem);
+            });
+            queueNotifier.publish("failed");
+        }
+    }
+
+    /**
+     * 준비 단계 실패 처리 (준비 트랜잭션은 이미 롤백됨)
+     */
+    @Transactional
+    public void markFailed(String queueId, String errorMessage) {
+        buildQueueRepository.findById(queueId).ifPresent(queueItem -> {
+            queueItem.markFailed(errorMessage,
+                    retryPolicy.nextAttemptAt(queueItem.getReqMethod(), queueItem.getRetryCount() + 1));
+            buildQueueRepository.save(queueItem);
+            if ("waiting".equals(queueItem.getQueueStatus())) {
+                log.info("Queue item {} will be retried at {} ({}/{})", queueItem.getId(),
+                        queueItem.getNextAttemptAt(), queueItem.getRetryCount(), queueItem.getMaxRetries());
+            }
+        });
+        queueNotifier.publish("failed");
+    }
+}
@@ -0,0 +1,61 @@
+package com.mintportal.scheduler;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 큐 아이템 재시도 정책
+ * - reqMethod(manual, scheduled, trigger)별 정책, 미지정 시 defaults 사용
+ * - 지수 백오프 + jitter: base * 2^(retry-1) 를 max 로 제한한 뒤 [delay/2, delay] 구간에서 무작위 선택
+ */
+@Configuration
+@ConfigurationProperties(prefix = "scheduler.retry")
+@Getter
+@Setter
+public class RetryPolicyConfig {
+
+    // 한 번의 디스패치에서 재시도 아이템에 쓸 수 있는 최대 슬롯 수
+    private int laneSlots = 1;
+
+    private Policy defaults = new Policy();
+    private Map<String, Policy> methods = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+        private int maxRetries = 3;
+        private long baseDelaySeconds = 30;
+        private long maxDelaySeconds = 900;
+    }
+
+    public Policy policyFor(String reqMethod) {
+        return reqMethod != null ? methods.getOrDefault(reqMethod, defaults) : defaults;
+    }
+
+    public int maxRetries(String reqMethod) {
+        return policyFor(reqMethod).getMaxRetries();
+    }
+
+    /**
+     * 다음 재시도 시각
+     *
+     * @param retryCount 실패 처리 후의 재시도 횟수 (1부터)
+     */
+    public OffsetDateTime nextAttemptAt(String reqMethod, int retryCount) {
+        Policy policy = policyFor(reqMethod);
+        int exponent = Math.min(Math.max(retryCount - 1, 0), 30);
+        long delay = Math.min(policy.getMaxDelaySeconds(), policy.getBaseDelaySeconds() << exponent);
+        if (delay <= 0) {
+            delay = policy.getMaxDelaySeconds();
+        }
+        long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        return OffsetDateTime.now().plusSeconds(jittered);
+    }
+}
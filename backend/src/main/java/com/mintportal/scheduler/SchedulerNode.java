@@ -0,0 +1,40 @@
+package com.mintportal.scheduler;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.UUID;
+
+/**
+ * 스케줄러 노드 식별자
+ * - 여러 백엔드 인스턴스가 동시에 실행될 때 각 노드를 구분
+ * - scheduler.node-id 미지정 시 hostname + pid 로 생성
+ */
+@Component
+@Getter
+@Slf4j
+public class SchedulerNode {
+
+    private final String nodeId;
+
+    public SchedulerNode(@Value("${scheduler.node-id:}") String configuredNodeId) {
+        this.nodeId = configuredNodeId != null && !configuredNodeId.isBlank()
+                ? configuredNodeId
+                : defaultNodeId();
+        log.info("Scheduler node id: {}", nodeId);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = UUID.randomUUID().toString().substring(0, 8);
+        }
+        return host + "-" + ManagementFactory.getRuntimeMXBean().getPid();
+    }
+}
@@ -0,0 +1,255 @@
+package com.mintportal.service;
+
+import com.mintportal.bamboo.BambooClient;
+import com.mintportal.bamboo.BambooLogChunk;
+import com.mintportal.entity.BuildStageResult;
+import com.mintportal.repository.BuildStageResultRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 스테이지 로그 실시간 tail
+ * - 주기마다 Range 요청으로 마지막으로 읽은 위치 이후의 바이트만 가져와 줄 단위로 전달
+ * - 한 번에 chunk-bytes 까지만 읽으므로 로그 크기와 무관하게 메모리 사용량이 일정
+ * - 같은 빌드/스테이지를 보는 시청자는 하나의 upstream 을 공유 (마지막 시청자가 떠나면 중지)
+ * - 늦게 합류한 시청자는 최근 backlog-lines 줄부터 받고, 느린 시청자는 오래된 줄부터 버림
+ * - 스테이지가 끝나고 더 읽을 바이트가 없으면 스트림 종료
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuildLogStreamService {
+
+    private final BambooClient bambooClient;
+    private final BuildStageResultRepository stageResultRepository;
+
+    @Value("${bamboo.log-stream.interval:2000}")
+    private long intervalMillis;
+
+    @Value("${bamboo.log-stream.chunk-bytes:1048576}")
+    private int chunkBytes;
+
+    // 스트림 시작 시 로그 끝에서부터 읽을 바이트 수
+    @Value("${bamboo.log-stream.initial-tail-bytes:65536}")
+    private int initialTailBytes;
+
+    @Value("${bamboo.log-stream.backlog-lines:200}")
+    private int backlogLines;
+
+    @Value("${bamboo.log-stream.viewer-buffer-lines:1000}")
+    private int viewerBufferLines;
+
+    @Value("${bamboo.log-stream.max-line-bytes:65536}")
+    private int maxLineBytes;
+
+    // 끝난 스테이지의 로그를 연속으로 이 횟수만큼 읽지 못하면 읽은 데까지로 스트림 종료
+    @Value("${bamboo.log-stream.max-failures:5}")
+    private int maxFailures;
+
+    @Value("${bamboo.log-stream.heartbeat-interval:15000}")
+    private long heartbeatMillis;
+
+    private final Map<String, Flux<String>> streams = new ConcurrentHashMap<>();
+
+    /**
+     * 스테이지 로그 tail 스트림 (추가되는 줄 단위)
+     */
+    public Flux<String> tail(String buildId, String stageName) {
+        stageResultRepository.findByBuildIdAndStageName(buildId, stageName)
+                .orElseThrow(() -> new RuntimeException("Stage not found: " + buildId + "/" + stageName));
+
+        String key = buildId + "/" + stageName;
+        Flux<String> shared = streams.computeIfAbsent(key, k -> {
+            AtomicReference<Flux<String>> self = new AtomicReference<>();
+            Flux<String> stream = createStream(buildId, stageName)
+                    .doFinally(signal -> streams.remove(k, self.get()))
+                    .replay(backlogLines)
+                    .refCount();
+            self.set(stream);
+            return stream;
+        });
+
+        return shared.onBackpressureBuffer(viewerBufferLines, dropped -> { }, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * 시청자 연결 확인용 heartbeat 주기 (새 줄이 없어도 전송해 끊긴 연결을 감지)
+     */
+    public Duration heartbeatInterval() {
+        return Duration.ofMillis(heartbeatMillis);
+    }
+
+    public int activeStreams() {
+        return streams.size();
+    }
+
+    private Flux<String> createStream(String buildId, String stageName) {
+        LogTail tail = new LogTail();
+        log.debug("Starting log tail for {}/{}", buildId, stageName);
+
+        return Flux.interval(Duration.ZERO, Duration.ofMillis(intervalMillis))
+                .onBackpressureDrop()
+                .concatMap(tick -> poll(tail, buildId, stageName), 1)
+                .takeUntil(lines -> tail.completed)
+                .concatMapIterable(lines -> lines)
+                .doOnTerminate(() -> log.debug("Log tail for {}/{} finished at offset {}", buildId, stageName, tail.offset));
+    }
+
+    /**
+     * 한 주기 처리: 새 바이트를 chunk 단위로 끝까지 읽고, 스테이지가 끝났으면 남은 줄을 내보내고 종료 표시
+     */
+    private Flux<List<String>> poll(LogTail tail, String buildId, String stageName) {
+        return Mono.fromCallable(() -> stageResultRepository.findByBuildIdAndStageName(buildId, stageName))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(found -> {
+                    BuildStageResult stage = found.orElse(null);
+                    if (stage == null) {
+                        tail.completed = true;
+                        return Flux.just(List.<String>of());
+                    }
+
+                    boolean finished = !"pending".equals(stage.getStatus()) && !"running".equals(stage.getStatus());
+                    if (stage.getLogUrl() == null) {
+                        tail.completed = finished;
+                        return Flux.just(List.<String>of());
+                    }
+
+                    return readNewLines(tail, stage.getLogUrl())
+                            .concatWith(Mono.fromSupplier(() -> {
+                                tail.failures = 0;
+                                if (finished) {
+                                    tail.completed = true;
+                                    return tail.flush();
+                                }
+                                return List.of();
+                            }))
+                            // 끝난 스테이지의 로그가 없거나(404, Range 미지원) 계속 읽지 못하면 읽은 데까지로 종료
+                            // (BuildLogIngestionService 와 같은 기준, 끝나지 않는 폴링 방지)
+                            .onErrorResume(error -> finished && (error instanceof WebClientResponseException.NotFound
+                                    || error instanceof BambooClient.RangeNotSupportedException
+                                    || ++tail.failures >= maxFailures), error -> {
+                                log.info("Log tail {}/{} ends at offset {}: {}", buildId, stageName, tail.offset,
+                                        error.getMessage());
+                                tail.completed = true;
+                                return Mono.just(tail.flush());
+                            });
+                })
+                .onErrorResume(error -> {
+                    log.debug("Log tail {}/{} poll failed: {}", buildId, stageName, error.getMessage());
+                    return Flux.just(List.of());
+                });
+    }
+
+    private Flux<List<String>> readNewLines(LogTail tail, String logUrl) {
+        return Mono.defer(() -> bambooClient.getLogChunk(logUrl, tail.started ? tail.offset : -initialTailBytes, chunkBytes))
+                .map(tail::consume)
+                .repeat(() -> tail.lastChunkFull);
+    }
+
+    /**
+     * 로그 읽기 위치와 아직 줄바꿈이 오지 않은 마지막 줄 조각
+     */
+    private final class LogTail {
+        private long offset;
+        private boolean started;
+        private boolean lastChunkFull;
+        private int failures;
+        private volatile boolean completed;
+        // 로그 중간부터 시작한 경우 첫 줄 조각은 버림
+        private boolean discardUntilNewline;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+        private List<String> consume(BambooLogChunk chunk) {
+            DataBuffer data = chunk.data();
+            List<String> lines = new ArrayList<>();
+            try {
+                int length = chunk.length();
+                if (!started) {
+                    started = true;
+                    discardUntilNewline = chunk.start() > 0;
+                }
+                offset = chunk.start() + length;
+                lastChunkFull = length >= chunkBytes;
+
+                for (int i = 0; i < length; i++) {
+                    byte b = data.read();
+                    if (b == '\n') {
+                        if (discardUntilNewline) {
+                            discardUntilNewline = false;
+                            pending.reset();
+                        } else {
+                            lines.add(takeLine());
+                        }
+                    } else if (b != '\r') {
+                        pending.write(b);
+                        if (pending.size() >= maxLineBytes) {
+                            lines.add(takeLineAtCharBoundary());
+                        }
+                    }
+                }
+            } finally {
+                DataBufferUtils.release(data);
+            }
+            return lines;
+        }
+
+        private List<String> flush() {
+            return pending.size() > 0 && !discardUntilNewline ? List.of(takeLine()) : List.of();
+        }
+
+        /**
+         * 너무 긴 줄을 강제로 나눌 때 UTF-8 문자 중간에서 자르지 않도록
+         * 끝의 불완전한 멀티바이트 시퀀스는 다음 줄 조각으로 넘김
+         */
+        private String takeLineAtCharBoundary() {
+            byte[] bytes = pending.toByteArray();
+            int cut = utf8Boundary(bytes);
+            String line = new String(bytes, 0, cut, StandardCharsets.UTF_8);
+            pending.reset();
+            pending.write(bytes, cut, bytes.length - cut);
+            return line;
+        }
+
+        private String takeLine() {
+            String line = pending.toString(StandardCharsets.UTF_8);
+            pending.reset();
+            return line;
+        }
+    }
+
+    /**
+     * bytes 끝에 잘린 UTF-8 시퀀스가 있으면 그 시작 위치, 없으면 bytes.length
+     */
+    static int utf8Boundary(byte[] bytes) {
+        int length = bytes.length;
+        int lead = length - 1;
+        // continuation byte(10xxxxxx)는 최대 3개까지 거슬러 올라가 시작 바이트를 찾음
+        while (lead >= 0 && length - lead <= 3 && (bytes[lead] & 0xC0) == 0x80) {
+            lead--;
+        }
+        if (lead < 0) {
+            return length;
+        }
+        int b = bytes[lead] & 0xFF;
+        int sequenceLength = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+        return lead + sequenceLength > length ? lead : length;
+    }
+}
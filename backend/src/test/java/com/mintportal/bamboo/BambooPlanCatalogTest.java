@@ -0,0 +1,102 @@
+package com.mintportal.bamboo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BambooPlanCatalogTest {
+
+    // max-results 를 보내지 않으면 Bamboo 는 25 개씩 응답
+    private static final int BAMBOO_DEFAULT_PAGE = 25;
+
+    private final List<Map<String, String>> requests = new ArrayList<>();
+
+    /**
+     * plan 목록 API 를 흉내 내는 Bamboo (start-index / max-results 로 페이지 응답, 3의 배수 번째 플랜은 비활성)
+     */
+    private ExchangeFunction bamboo(int planCount) {
+        return request -> {
+            Map<String, String> query = UriComponentsBuilder.fromUri(request.url()).build()
+                    .getQueryParams().toSingleValueMap();
+            requests.add(query);
+            int start = Integer.parseInt(query.getOrDefault("start-index", "0"));
+            int max = Integer.parseInt(query.getOrDefault("max-results", String.valueOf(BAMBOO_DEFAULT_PAGE)));
+            String plans = IntStream.range(start, Math.min(planCount, start + max))
+                    .mapToObj(i -> "{\"key\": \"MINT-P" + i + "\", \"name\": \"Plan " + i + "\", \"enabled\": " + (i % 3 != 0) + "}")
+                    .collect(Collectors.joining(", "));
+            String body = "{\"plans\": {\"size\": " + planCount + ", \"start-index\": " + start
+                    + ", \"max-result\": " + max + ", \"plan\": [" + plans + "]}}";
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private BambooPlanCatalog catalog(int planCount, int pageSize) {
+        BambooTransport transport = mock(BambooTransport.class);
+        when(transport.webClient()).thenReturn(WebClient.builder().exchangeFunction(bamboo(planCount)).build());
+        when(transport.responseTimeout(any())).thenReturn(request -> { });
+        when(transport.guard(any(), any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(1));
+        BambooRateLimiter rateLimiter = mock(BambooRateLimiter.class);
+        when(rateLimiter.acquire(any(), any())).thenReturn(Mono.empty());
+
+        BambooPlanCatalog catalog = new BambooPlanCatalog(
+                new BambooClient(transport, rateLimiter, new BambooCallStats(), null));
+        ReflectionTestUtils.setField(catalog, "enabled", true);
+        ReflectionTestUtils.setField(catalog, "pageSize", pageSize);
+        ReflectionTestUtils.setField(catalog, "requestTimeoutSeconds", 5L);
+        return catalog;
+    }
+
+    @Test
+    void readsAllPagesLargerThanBambooDefault() {
+        BambooPlanCatalog catalog = catalog(120, 50);
+
+        assertThat(catalog.refresh()).isTrue();
+
+        assertThat(catalog.getPlans()).hasSize(120);
+        assertThat(requests).extracting(query -> query.get("start-index")).containsExactly("0", "50", "100");
+        assertThat(requests).allSatisfy(query -> assertThat(query).containsEntry("max-results", "50"));
+    }
+
+    @Test
+    void stopsAfterLastFullPage() {
+        BambooPlanCatalog catalog = catalog(100, 50);
+
+        assertThat(catalog.refresh()).isTrue();
+
+        // 마지막 페이지가 가득 차 있으면 빈 페이지를 한 번 더 읽고 끝냄
+        assertThat(catalog.getPlans()).hasSize(100);
+        assertThat(requests).hasSize(3);
+    }
+
+    @Test
+    void validatesLoadedPlans() {
+        BambooPlanCatalog catalog = catalog(10, 50);
+        catalog.refresh();
+
+        assertThat(catalog.validate("MINT-P1")).isEqualTo(BambooPlanCatalog.Validation.VALID);
+        assertThat(catalog.validate("MINT-P3")).isEqualTo(BambooPlanCatalog.Validation.DISABLED);
+        assertThat(catalog.getPlan("MINT-P1")).hasValueSatisfying(plan -> assertThat(plan.name()).isEqualTo("Plan 1"));
+    }
+}
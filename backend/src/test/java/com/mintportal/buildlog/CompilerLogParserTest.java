@@ -0,0 +1,165 @@
+package com.mintportal.buildlog;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompilerLogParserTest {
+
+    private static final String LOG = String.join("\n",
+            "Compiling src/main.c",
+            "src/main.c:12:5: error: 'count' undeclared (first use in this function)",
+            "src/util.c:7:1: warning: unused variable 'tmp' [-Wunused-variable]",
+            "src/boot.c:3:10: fatal error: board.h: No such file or directory",
+            "\"src/drv.c\", line 42: Error:  #20: identifier \"REG_BASE\" is undefined",
+            "\"src/drv.c\", line 58: Warning:  #177-D: variable \"i\" was declared but never referenced",
+            "Error: L6218E: Undefined symbol foo (referred from main.o).",
+            "Warning: L6314W: No section matches pattern *(.ARM.__at_0x20000000).",
+            "Finished: 4 error(s), 3 warning(s)") + "\n";
+
+    private static CompilerLogParser newParser() {
+        return new CompilerLogParser(50, 3, 8192);
+    }
+
+    private static void feed(CompilerLogParser parser, byte[] bytes) {
+        parser.feed(DefaultDataBufferFactory.sharedInstance.wrap(bytes));
+    }
+
+    private static CompilerLogParser parseWhole(String log) {
+        CompilerLogParser parser = newParser();
+        feed(parser, log.getBytes(StandardCharsets.UTF_8));
+        parser.finish();
+        return parser;
+    }
+
+    @Test
+    void countsGccArmccAndArmlinkDiagnostics() {
+        CompilerLogParser parser = parseWhole(LOG);
+
+        assertThat(parser.getErrorCount()).isEqualTo(4);
+        assertThat(parser.getWarningCount()).isEqualTo(3);
+        assertThat(parser.getCommittedOffset()).isEqualTo(LOG.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void extractsGccLocation() {
+        Map<String, Object> error = parseWhole(LOG).getErrors().get(0);
+
+        assertThat(error)
+                .containsEntry("file", "src/main.c")
+                .containsEntry("line", 12)
+                .containsEntry("column", 5)
+                .containsEntry("message", "'count' undeclared (first use in this function)");
+    }
+
+    @Test
+    void extractsArmccLocation() {
+        CompilerLogParser parser = parseWhole(LOG);
+
+        assertThat(parser.getErrors().get(2))
+                .containsEntry("file", "src/drv.c")
+                .containsEntry("line", 42)
+                .containsEntry("message", "#20: identifier \"REG_BASE\" is undefined")
+                .doesNotContainKey("column");
+        assertThat(parser.getWarnings().get(1))
+                .containsEntry("file", "src/drv.c")
+                .containsEntry("line", 58);
+    }
+
+    @Test
+    void keepsArmlinkMessageWithoutLocation() {
+        CompilerLogParser parser = parseWhole(LOG);
+
+        assertThat(parser.getErrors().get(3))
+                .containsOnlyKeys("message")
+                .containsEntry("message", "Error: L6218E: Undefined symbol foo (referred from main.o).");
+        assertThat(parser.getWarnings().get(2).get("message")).asString().startsWith("Warning: L6314W:");
+    }
+
+    @Test
+    void handlesLinesSplitAcrossChunks() {
+        byte[] bytes = LOG.getBytes(StandardCharsets.UTF_8);
+        CompilerLogParser parser = newParser();
+        // 7바이트씩 나눠 넣어 대부분의 줄이 chunk 경계에 걸치도록 함
+        for (int start = 0; start < bytes.length; start += 7) {
+            feed(parser, Arrays.copyOfRange(bytes, start, Math.min(bytes.length, start + 7)));
+        }
+        parser.finish();
+
+        CompilerLogParser whole = parseWhole(LOG);
+        assertThat(parser.getErrorCount()).isEqualTo(whole.getErrorCount());
+        assertThat(parser.getWarningCount()).isEqualTo(whole.getWarningCount());
+        assertThat(parser.getErrors()).isEqualTo(whole.getErrors());
+        assertThat(parser.getWarnings()).isEqualTo(whole.getWarnings());
+    }
+
+    @Test
+    void committedOffsetStopsAtLastCompleteLine() {
+        String partial = "src/a.c:1:1: error: first\nsrc/b.c:2:2: err";
+        CompilerLogParser parser = newParser();
+        feed(parser, partial.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(parser.getReadOffset()).isEqualTo(partial.length());
+        assertThat(parser.getCommittedOffset()).isEqualTo(partial.indexOf('\n') + 1);
+        assertThat(parser.getErrorCount()).isEqualTo(1);
+    }
+
+    @Test
+    void restoresFromSavedOffsetWithoutDoubleCounting() {
+        byte[] bytes = LOG.getBytes(StandardCharsets.UTF_8);
+        // 세 번째 진단 줄 중간에서 끊김 (저장 시점)
+        int cut = LOG.indexOf("fatal error") + 3;
+
+        CompilerLogParser first = newParser();
+        feed(first, Arrays.copyOfRange(bytes, 0, cut));
+        long savedOffset = first.getCommittedOffset();
+        Map<String, Object> savedResult = Map.of("errors", first.getErrors(), "warnings", first.getWarnings());
+
+        CompilerLogParser resumed = newParser();
+        resumed.restore(savedOffset, first.getErrorCount(), first.getWarningCount(),
+                savedResult, first.getPreview());
+        assertThat(resumed.getReadOffset()).isEqualTo(savedOffset);
+        feed(resumed, Arrays.copyOfRange(bytes, (int) savedOffset, bytes.length));
+        resumed.finish();
+
+        CompilerLogParser whole = parseWhole(LOG);
+        assertThat(resumed.getErrorCount()).isEqualTo(whole.getErrorCount());
+        assertThat(resumed.getWarningCount()).isEqualTo(whole.getWarningCount());
+        assertThat(resumed.getErrors()).isEqualTo(whole.getErrors());
+        assertThat(resumed.getWarnings()).isEqualTo(whole.getWarnings());
+        assertThat(resumed.getPreview()).isEqualTo(whole.getPreview());
+    }
+
+    @Test
+    void boundsStoredDiagnosticsButCountsAll() {
+        StringBuilder log = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            log.append("src/a.c:").append(i).append(":1: error: e").append(i).append('\n');
+        }
+        CompilerLogParser parser = new CompilerLogParser(3, 2, 8192);
+        feed(parser, log.toString().getBytes(StandardCharsets.UTF_8));
+        parser.finish();
+
+        assertThat(parser.getErrorCount()).isEqualTo(10);
+        assertThat(parser.getErrors()).hasSize(3);
+        assertThat(parser.getPreview().lines().toList()).hasSize(2);
+    }
+
+    @Test
+    void finishCountsLastLineWithoutNewline() {
+        CompilerLogParser parser = newParser();
+        feed(parser, "Error: L6218E: Undefined symbol bar".getBytes(StandardCharsets.UTF_8));
+        assertThat(parser.getErrorCount()).isZero();
+
+        parser.finish();
+        assertThat(parser.getErrorCount()).isEqualTo(1);
+        assertThat(parser.getErrors()).extracting(e -> e.get("message"))
+                .isEqualTo(List.of("Error: L6218E: Undefined symbol bar"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.mintportal.buildlog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private LogArchive newArchive(long maxTotalBytes) {
+        // 블록 경계를 여러 번 지나도록 작은 블록 사용
+        return new LogArchive(dir.toString(), 4, 64, maxTotalBytes, 60);
+    }
+
+    private static void write(LogArchive archive, String stageId, String log) throws IOException {
+        try (LogArchive.Writer writer = archive.create(stageId)) {
+            // chunk 경계가 줄 중간에 걸리도록 7 바이트씩 나눠 기록
+            byte[] bytes = log.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < bytes.length; i += 7) {
+                writer.write(ByteBuffer.wrap(bytes, i, Math.min(7, bytes.length - i)));
+            }
+            writer.finish();
+        }
+    }
+
+    private static List<String> lines(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "line " + i + " 빌드 로그").toList();
+    }
+
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @Test
+    void roundTripsAllLinesAcrossBlocks() throws IOException {
+        LogArchive archive = newArchive(Long.MAX_VALUE);
+        List<String> lines = lines(50);
+        write(archive, "stage-1", String.join("\n", lines) + "\n");
+
+        assertThat(archive.exists("stage-1")).isTrue();
+        LogArchive.LogLines read = archive.readLines("stage-1", 0, 100);
+        assertThat(read.totalLines()).isEqualTo(50);
+        assertThat(read.lines()).isEqualTo(lines);
+    }
+
+    @Test
+    void readsRangeFromMiddleOfBlock() throws IOException {
+        LogArchive archive = newArchive(Long.MAX_VALUE);
+        List<String> lines = lines(50);
+        write(archive, "stage-1", String.join("\n", lines) + "\n");
+
+        LogArchive.LogLines read = archive.readLines("stage-1", 21, 10);
+        assertThat(read.fromLine()).isEqualTo(21);
+        assertThat(read.totalLines()).isEqualTo(50);
+        assertThat(read.lines()).isEqualTo(lines.subList(21, 31));
+    }
+
+    @Test
+    void readPastEndReturnsNoLines() throws IOException {
+        LogArchive archive = newArchive(Long.MAX_VALUE);
+        write(archive, "stage-1", String.join("\n", lines(10)) + "\n");
+
+        assertThat(archive.readLines("stage-1", 10, 5).lines()).isEmpty();
+    }
+
+    @Test
+    void keepsLastLineWithoutTrailingNewline() throws IOException {
+        LogArchive archive = newArchive(Long.MAX_VALUE);
+        write(archive, "stage-1", "first\nsecond\nlast");
+
+        LogArchive.LogLines read = archive.readLines("stage-1", 0, 10);
+        assertThat(read.totalLines()).isEqualTo(3);
+        assertThat(read.lines()).containsExactly("first", "second", "last");
+    }
+
+    @Test
+    void writerClosedWithoutFinishLeavesNoFiles() throws IOException {
+        LogArchive archive = newArchive(Long.MAX_VALUE);
+        try (LogArchive.Writer writer = archive.create("stage-1")) {
+            writer.write(ByteBuffer.wrap("partial\n".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        assertThat(archive.exists("stage-1")).isFalse();
+        assertThat(fileNames()).isEmpty();
+    }
+
+    @Test
+    void concurrentWritersUseSeparateTempFiles() throws IOException {
+        LogArchive archive = newArchive(Long.MAX_VALUE);
+        try (LogArchive.Writer first = archive.create("stage-1");
+             LogArchive.Writer second = archive.create("stage-1")) {
+            first.write(ByteBuffer.wrap("a\n".getBytes(StandardCharsets.UTF_8)));
+            second.write(ByteBuffer.wrap("b\n".getBytes(StandardCharsets.UTF_8)));
+            assertThat(fileNames()).hasSize(4).allMatch(name -> name.endsWith(".tmp"));
+            first.finish();
+            second.finish();
+        }
+
+        assertThat(fileNames()).containsExactly("stage-1.dat", "stage-1.idx");
+        assertThat(archive.readLines("stage-1", 0, 10).lines()).hasSize(1);
+    }
+
+    @Test
+    void retentionSweepsOnlyStaleTempFiles() throws IOException {
+        LogArchive archive = newArchive(Long.MAX_VALUE);
+        Path stale = Files.writeString(dir.resolve("stage-1.dat.crashed.tmp"), "x");
+        Path fresh = Files.writeString(dir.resolve("stage-2.dat.writing.tmp"), "x");
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        archive.enforceRetention();
+
+        assertThat(stale).doesNotExist();
+        assertThat(fresh).exists();
+    }
+
+    @Test
+    void retentionEvictsOldestArchivesOverLimit() throws IOException {
+        LogArchive unbounded = newArchive(Long.MAX_VALUE);
+        String log = String.join("\n", lines(200)) + "\n";
+        write(unbounded, "old", log);
+        write(unbounded, "new", log);
+        Files.setLastModifiedTime(dir.resolve("old.idx"), FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+
+        long oneArchive = Files.size(dir.resolve("new.idx")) + Files.size(dir.resolve("new.dat"));
+        List<String> evicted = newArchive(oneArchive).enforceRetention();
+
+        assertThat(evicted).containsExactly("old");
+        assertThat(unbounded.exists("old")).isFalse();
+        assertThat(dir.resolve("old.dat")).doesNotExist();
+        assertThat(unbounded.exists("new")).isTrue();
+    }
+
+    @Test
+    void truncatedBlockFailsInsteadOfHanging() throws IOException {
+        LogArchive archive = newArchive(Long.MAX_VALUE);
+        write(archive, "stage-1", String.join("\n", lines(10)) + "\n");
+
+        // 첫 블록의 압축 길이를 절반으로 줄여 잘린 블록을 만듦 (헤더 16 바이트 + dataOffset 8 바이트)
+        Path index = dir.resolve("stage-1.idx");
+        byte[] bytes = Files.readAllBytes(index);
+        ByteBuffer entry = ByteBuffer.wrap(bytes);
+        entry.putInt(24, entry.getInt(24) / 2);
+        Files.write(index, bytes);
+
+        assertThatThrownBy(() -> archive.readLines("stage-1", 0, 10)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,173 @@
+package com.mintportal.report;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonReportParserTest {
+
+    private static final String SAM_REPORT = """
+            {
+              "tool": {"name": "sam", "version": "2.1"},
+              "score": 87,
+              "issues": [
+                {"severity": "Low", "rule": "style", "file": "a.c", "line": 3, "message": "m1"},
+                {"severity": "Critical", "rule": "memory-leak", "category": "memory", "file": "b.c", "line": "12"},
+                {"severity": "warning", "rule": "unused", "file": "c.c", "extra": {"nested": [1, 2, 3]}},
+                {"severity": "High", "rule": "overflow", "category": "Leak check", "file": "d.c", "line": 40},
+                {"severity": "something", "rule": "note"},
+                "not an object",
+                {"rule": "no severity"}
+              ]
+            }
+            """;
+
+    private static final String COVERITY_REPORT = """
+            {
+              "type": "Coverity issues",
+              "formatVersion": 7,
+              "issues": [
+                {
+                  "cid": 1001,
+                  "checkerName": "NULL_RETURNS",
+                  "mainEventFilePathname": "/src/main.c",
+                  "mainEventLineNumber": 42,
+                  "functionDisplayName": "main",
+                  "events": [{"eventDescription": "long path", "lineNumber": 1}],
+                  "checkerProperties": {"impact": "High", "category": "Null pointer dereferences",
+                                        "subcategoryShortDescription": "Dereference null return value"}
+                },
+                {
+                  "cid": 1002,
+                  "checkerName": "UNUSED_VALUE",
+                  "checkerProperties": {"impact": "Low", "category": "Code maintainability issues"}
+                },
+                {
+                  "cid": 1003,
+                  "checkerName": "AUDIT",
+                  "checkerProperties": {"impact": "Audit"}
+                }
+              ]
+            }
+            """;
+
+    private static StageReport parse(JsonReportParser parser, String json) throws IOException {
+        return parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> issues(StageReport report) {
+        return (List<Map<String, Object>>) report.result().get("issues");
+    }
+
+    @Test
+    void countsSamIssuesBySeverity() throws IOException {
+        StageReport report = parse(new SamReportParser(50), SAM_REPORT);
+
+        Map<String, Object> result = report.result();
+        assertThat(result).containsEntry("score", 87)
+                .containsEntry("issue_count", 6)
+                .containsEntry("critical", 1)
+                .containsEntry("high", 1)
+                .containsEntry("medium", 1)
+                .containsEntry("low", 1)
+                .containsEntry("memory_leaks", 2)
+                .doesNotContainKey("info");
+        assertThat(report.errorCount()).isEqualTo(2);
+        assertThat(report.warningCount()).isEqualTo(2);
+    }
+
+    @Test
+    void normalizesSeverityAndReadsNumericStrings() throws IOException {
+        StageReport report = parse(new SamReportParser(50), SAM_REPORT);
+
+        Map<String, Object> critical = issues(report).get(0);
+        assertThat(critical).containsEntry("severity", "critical")
+                .containsEntry("rule", "memory-leak")
+                .containsEntry("line", 12.0);
+        assertThat(issues(report)).extracting(issue -> issue.get("severity"))
+                .containsExactly("critical", "high", "medium", "low", "info", "info");
+    }
+
+    @Test
+    void keepsOnlyTopIssuesInSeverityOrder() throws IOException {
+        StageReport report = parse(new SamReportParser(2), SAM_REPORT);
+
+        assertThat(issues(report)).extracting(issue -> issue.get("rule"))
+                .containsExactly("memory-leak", "overflow");
+        // 보관 개수와 무관하게 집계는 전체 기준
+        assertThat(report.result()).containsEntry("issue_count", 6);
+    }
+
+    @Test
+    void keepsFirstIssueAmongEqualSeverity() throws IOException {
+        String json = """
+                {"issues": [
+                  {"severity": "low", "rule": "first"},
+                  {"severity": "low", "rule": "second"},
+                  {"severity": "low", "rule": "third"}
+                ]}
+                """;
+        StageReport report = parse(new SamReportParser(2), json);
+
+        assertThat(issues(report)).extracting(issue -> issue.get("rule")).containsExactly("first", "second");
+    }
+
+    @Test
+    void parsesCoverityCheckerProperties() throws IOException {
+        StageReport report = parse(new CoverityReportParser(50), COVERITY_REPORT);
+
+        assertThat(report.result()).containsEntry("defect_count", 3)
+                .containsEntry("high", 1)
+                .containsEntry("low", 1);
+        Map<String, Object> first = issues(report).get(0);
+        assertThat(first).containsEntry("cid", 1001)
+                .containsEntry("checker", "NULL_RETURNS")
+                .containsEntry("file", "/src/main.c")
+                .containsEntry("line", 42)
+                .containsEntry("function", "main")
+                .containsEntry("severity", "high")
+                .containsEntry("category", "Null pointer dereferences")
+                .containsEntry("description", "Dereference null return value")
+                .doesNotContainKey("events");
+        assertThat(issues(report).get(2)).containsEntry("severity", "info");
+    }
+
+    @Test
+    void truncatesLongText() throws IOException {
+        String json = "{\"issues\": [{\"severity\": \"low\", \"message\": \"" + "x".repeat(5000) + "\"}]}";
+        StageReport report = parse(new SamReportParser(50), json);
+
+        assertThat((String) issues(report).get(0).get("message")).hasSize(1000);
+    }
+
+    @Test
+    void reportWithoutIssuesHasZeroCounts() throws IOException {
+        StageReport report = parse(new SamReportParser(50), "{\"score\": 100}");
+
+        assertThat(report.result()).containsEntry("issue_count", 0)
+                .containsEntry("memory_leaks", 0)
+                .containsEntry("critical", 0);
+        assertThat(issues(report)).isEmpty();
+    }
+
+    @Test
+    void rejectsNonObjectReport() {
+        assertThatThrownBy(() -> parse(new SamReportParser(50), "[1, 2, 3]"))
+                .isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void rejectsTruncatedReport() {
+        assertThatThrownBy(() -> parse(new SamReportParser(50), "{\"issues\": [{\"severity\": \"low\""))
+                .isInstanceOf(JsonProcessingException.class);
+    }
+}